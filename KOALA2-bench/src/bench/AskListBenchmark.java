@@ -0,0 +1,97 @@
+package bench;
+
+import interpreter.code.CodeExecutor;
+import interpreter.data.ChocoStore;
+import interpreter.data.Closure;
+import interpreter.data.Environment;
+import interpreter.data.Program;
+import interpreter.data.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import choco.kernel.model.constraints.Constraint;
+
+/**
+ * Measures list pattern matching of the ask-constraints of a rule against a
+ * ground list of listLength integers. The numeric part of the ask is
+ * deferred, so the store is not involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AskListBenchmark {
+
+	@Param({"1", "10", "100", "1000"})
+	public int listLength;
+
+	private CodeExecutor executor;
+	private List<Constraint> guard;
+	private Value list;
+	private Closure variables;
+	private Closure constants;
+	private Closure cons;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		String source =
+				"vars(L) :- L = " + Programs.listPattern(listLength, "X") + " : true | .\n"
+				+ "consts(L) :- L = " + Programs.listPattern(listLength, "") + " : true | .\n"
+				+ "cons(L) :- L = [H|T] : true | .\n";
+		Program program = Programs.load(source);
+		executor = new CodeExecutor(new ChocoStore());
+		guard = new ArrayList<>();
+		list = Programs.groundList(listLength);
+		variables = program.getClosures("vars/1").get(0);
+		constants = program.getClosures("consts/1").get(0);
+		cons = program.getClosures("cons/1").get(0);
+	}
+
+	/**
+	 * binds each element of the list to a variable of the pattern
+	 */
+	@Benchmark
+	public boolean matchVariables() {
+		return ask(variables);
+	}
+
+	/**
+	 * compares each element of the list to a constant of the pattern
+	 */
+	@Benchmark
+	public boolean matchConstants() {
+		return ask(constants);
+	}
+
+	/**
+	 * only splits the list into head and tail
+	 */
+	@Benchmark
+	public boolean matchCons() {
+		return ask(cons);
+	}
+
+	private boolean ask(Closure closure) {
+		Environment environment = new Environment(closure.getLayout());
+		environment.put(0, list);
+		guard.clear();
+		return executor.ask(closure.getCode(), environment, guard);
+	}
+}
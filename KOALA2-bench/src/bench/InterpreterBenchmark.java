@@ -0,0 +1,111 @@
+package bench;
+
+import interpreter.data.Literal;
+import interpreter.data.Program;
+import interpreter.strat.CustomLiteralSelector;
+import interpreter.strat.CustomRuleSelector;
+import interpreter.strat.FifoScheduler;
+import interpreter.strat.LifoScheduler;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cli.Runner;
+
+/**
+ * Measures complete runs of generated programs, i.e. the cycle of
+ * detectAlternatives and interpret until the goal is reduced. Literals
+ * and rules are always selected by their first alternative so that every
+ * run performs the same steps. The fifo and lifo strategies let a
+ * scheduler choose the literal of each step instead, the parallel strategy
+ * reduces independent literals on all available processors and the
+ * speculative strategy checks literals optimistically on them; compare
+ * these to measure the speedup over the sequential interpreter. Each run
+ * uses a fresh store of the given implementation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InterpreterBenchmark {
+
+	@Param({"producerConsumer", "append", "primes"})
+	public String program;
+
+	@Param({"10", "50"})
+	public int listLength;
+
+	@Param({"1", "4"})
+	public int goalWidth;
+
+	@Param({"detect", "fifo", "lifo", "parallel", "speculative"})
+	public String strategy;
+
+	@Param({"reference", "incremental", "partitioned"})
+	public String store;
+
+	private Program image;
+	private String goal;
+	private Runner runner;
+	private ForkJoinPool pool;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		image = Programs.load(Programs.source(program));
+		goal = Programs.goal(program, listLength, goalWidth);
+		pool = strategy.equals("parallel") || strategy.equals("speculative") ? new ForkJoinPool() : null;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDownTrial() {
+		if(pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * every run reduces a fresh goal over a fresh store
+	 */
+	@Setup(Level.Invocation)
+	public void setUpInvocation() {
+		List<Literal> literals = Programs.loadGoal(goal, image);
+		runner = new Runner(image, literals, new CustomLiteralSelector(0), new CustomRuleSelector(0),
+				StoreBenchmark.createStore(store));
+		if(strategy.equals("fifo")) {
+			runner.setScheduler(new FifoScheduler());
+		} else if(strategy.equals("lifo")) {
+			runner.setScheduler(new LifoScheduler());
+		}
+		if(strategy.equals("parallel")) {
+			runner.setPool(pool);
+		} else if(strategy.equals("speculative")) {
+			runner.setSpeculation(pool);
+		}
+	}
+
+	@Benchmark
+	public long run() {
+		Runner.Status status = runner.run(Runner.UNLIMITED, Runner.UNLIMITED);
+		if(status != Runner.Status.FINISHED) {
+			throw new IllegalStateException(program + " stopped with " + status);
+		}
+		return runner.getSteps();
+	}
+}
@@ -0,0 +1,167 @@
+package bench;
+
+import interpreter.data.ListVariable;
+import interpreter.data.Literal;
+import interpreter.data.Program;
+import interpreter.data.Value;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+
+import cli.Loader;
+
+/**
+ * Generates the programs and goals the benchmarks run on.
+ */
+final class Programs {
+
+	/**
+	 * a producer counting down from n and a consumer summing up the produced
+	 * list, the consumer suspends until the next element has been produced
+	 */
+	static final String PRODUCER_CONSUMER =
+			"produce(N, L) :- N = 0 : L = [] | .\n"
+			+ "produce(N, L) :- N > 0 : L = [N|T], M = N - 1 | produce(M, T).\n"
+			+ "consume(L, S) :- L = [] : S = 0 | .\n"
+			+ "consume(L, S) :- L = [H|T] : S = H + R | consume(T, R).\n";
+
+	static final String APPEND =
+			"append(X, Y, Z) :- X = [] : Z = Y | .\n"
+			+ "append(X, Y, Z) :- X = [H|T] : Z = [H|R] | append(T, Y, R).\n";
+
+	/**
+	 * the sieve of Eratosthenes as a network of filter processes
+	 */
+	static final String PRIMES =
+			"primes(N, Ps) :- true : true | ints(2, N, L), sift(L, Ps).\n"
+			+ "ints(I, N, L) :- I > N : L = [] | .\n"
+			+ "ints(I, N, L) :- I <= N : L = [I|T], J = I + 1 | ints(J, N, T).\n"
+			+ "sift(L, Ps) :- L = [] : Ps = [] | .\n"
+			+ "sift(L, Ps) :- L = [P|T] : Ps = [P|R] | filter(T, P, F), sift(F, R).\n"
+			+ "filter(L, P, F) :- L = [] : F = [] | .\n"
+			+ "filter(L, P, F) :- L = [X|T] : R = X % P | select(R, X, T, P, F).\n"
+			+ "select(R, X, T, P, F) :- R = 0 : true | filter(T, P, F).\n"
+			+ "select(R, X, T, P, F) :- R > 0 : F = [X|G] | filter(T, P, G).\n";
+
+	private Programs() {
+	}
+
+	/**
+	 * @return the source of the given program
+	 */
+	static String source(String program) {
+		switch(program) {
+		case "producerConsumer":
+			return PRODUCER_CONSUMER;
+		case "append":
+			return APPEND;
+		case "primes":
+			return PRIMES;
+		default:
+			throw new IllegalArgumentException("unknown program " + program);
+		}
+	}
+
+	/**
+	 * @return a goal of goalWidth independent calls of the given program,
+	 * 			each working on lists of the given length
+	 */
+	static String goal(String program, int listLength, int goalWidth) {
+		StringBuilder goal = new StringBuilder();
+		for(int i=0; i<goalWidth; ++i) {
+			if(i > 0) {
+				goal.append(", ");
+			}
+			switch(program) {
+			case "producerConsumer":
+				goal.append("produce(").append(listLength).append(", L").append(i)
+					.append("), consume(L").append(i).append(", S").append(i).append(")");
+				break;
+			case "append":
+				goal.append("append(").append(listPattern(listLength, "")).append(", [0], Z").append(i).append(")");
+				break;
+			case "primes":
+				goal.append("primes(").append(listLength).append(", P").append(i).append(")");
+				break;
+			default:
+				throw new IllegalArgumentException("unknown program " + program);
+			}
+		}
+		return goal.toString();
+	}
+
+	/**
+	 * @return a list of the given length, either of the numbers 1..length
+	 * 			or of variables with the given prefix
+	 */
+	static String listPattern(int length, String variablePrefix) {
+		StringBuilder list = new StringBuilder("[");
+		for(int i=1; i<=length; ++i) {
+			if(i > 1) {
+				list.append(", ");
+			}
+			if(variablePrefix.isEmpty()) {
+				list.append(i);
+			} else {
+				list.append(variablePrefix).append(i);
+			}
+		}
+		return list.append("]").toString();
+	}
+
+	/**
+	 * @return the ground list [1, ..., length]
+	 */
+	static Value groundList(int length) {
+		Value value = new Value("L");
+		ListVariable list = new ListVariable();
+		value.init(list);
+		if(length == 0) {
+			list.setEmpty();
+			return value;
+		}
+		int[] numbers = new int[length];
+		for(int i=0; i<length; ++i) {
+			numbers[i] = i + 1;
+		}
+		Value empty = new Value("");
+		empty.init(new ListVariable());
+		empty.getListVar().setEmpty();
+		list.setInts(numbers, empty);
+		return value;
+	}
+
+	/**
+	 * parses and checks a program
+	 */
+	static Program load(String source) {
+		Loader loader = new Loader();
+		try {
+			Program program = loader.loadProgram(new StringReader(source));
+			if(program == null) {
+				throw new IllegalStateException(loader.getMessages().toString());
+			}
+			return program;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * parses and checks a goal against a loaded program
+	 */
+	static List<Literal> loadGoal(String goalString, Program program) {
+		Loader loader = new Loader();
+		List<Literal> goal = new LinkedList<>();
+		try {
+			if(!loader.loadGoal(goalString, program, goal)) {
+				throw new IllegalStateException(loader.getMessages().toString());
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return goal;
+	}
+}
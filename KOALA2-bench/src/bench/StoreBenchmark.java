@@ -0,0 +1,140 @@
+package bench;
+
+import interpreter.data.ChocoStore;
+import interpreter.data.IncrementalChocoStore;
+import interpreter.data.PartitionedChocoStore;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import choco.Choco;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * Measures the basic operations of the constraint store on a store holding
+ * storeSize variables in independent chains X0 < X1 < ... where the first
+ * variable of each chain is fixed. Asks and tells concern the last chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+	@State(Scope.Thread)
+	public static class StoreState {
+
+		@Param({"10", "100", "1000"})
+		public int storeSize;
+
+		/**
+		 * reference: the plain ChocoStore, incremental: the IncrementalChocoStore,
+		 * partitioned: the PartitionedChocoStore
+		 */
+		@Param({"reference", "incremental", "partitioned"})
+		public String store;
+
+		/**
+		 * the number of chains the variables are split into
+		 */
+		@Param({"1", "10"})
+		public int chains;
+
+		ChocoStore chocoStore;
+		IntegerVariable[] variables;
+		Constraint entailed;
+		Constraint unknown;
+		int counter;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			chocoStore = createStore(store);
+			variables = new IntegerVariable[storeSize];
+			int chainSize = storeSize / chains;
+			for(int i=0; i<storeSize; ++i) {
+				variables[i] = Choco.makeIntVar("X" + i);
+				if(i % chainSize == 0) {
+					tell(Choco.eq(variables[i], 0), variables[i]);
+				} else {
+					tell(Choco.lt(variables[i-1], variables[i]), variables[i-1], variables[i]);
+				}
+			}
+			IntegerVariable last = variables[storeSize-1];
+			entailed = scope(Choco.geq(last, chainSize-1), last);
+			unknown = scope(Choco.eq(last, chainSize), last);
+		}
+
+		private void tell(Constraint constraint, IntegerVariable... scope) {
+			chocoStore.tell(scope(constraint, scope));
+		}
+
+		Constraint scope(Constraint constraint, IntegerVariable... scope) {
+			chocoStore.scope(constraint, Arrays.asList(scope));
+			return constraint;
+		}
+	}
+
+	/**
+	 * tells go to a fresh store each invocation, otherwise the store would
+	 * grow with every measured call
+	 */
+	@State(Scope.Thread)
+	public static class TellState extends StoreState {
+
+		@Setup(Level.Invocation)
+		public void setUpInvocation() {
+			setUp();
+		}
+	}
+
+	/**
+	 * the scope of a constraint is used up by the first ask or tell
+	 */
+	@Benchmark
+	public boolean askEntailed(StoreState state) {
+		return state.chocoStore.ask(state.scope(state.entailed, state.variables[state.storeSize-1]));
+	}
+
+	@Benchmark
+	public boolean askUnknown(StoreState state) {
+		return state.chocoStore.ask(state.scope(state.unknown, state.variables[state.storeSize-1]));
+	}
+
+	@Benchmark
+	public boolean tell(TellState state) {
+		return state.chocoStore.tell(state.unknown);
+	}
+
+	@Benchmark
+	public Integer getValueOfVar(StoreState state) {
+		return state.chocoStore.getValueOfVar(state.variables[state.counter++ % state.storeSize]);
+	}
+
+	static ChocoStore createStore(String store) {
+		switch(store) {
+		case "reference":
+			return new ChocoStore();
+		case "incremental":
+			return new IncrementalChocoStore();
+		case "partitioned":
+			return new PartitionedChocoStore();
+		default:
+			throw new IllegalArgumentException("unknown store " + store);
+		}
+	}
+}
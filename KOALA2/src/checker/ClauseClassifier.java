@@ -0,0 +1,187 @@
+package checker;
+
+import interpreter.data.ParameterShape;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import parser.analysis.DepthFirstAdapter;
+import parser.node.AEqExpr;
+import parser.node.AGeqExpr;
+import parser.node.AGtExpr;
+import parser.node.AHead;
+import parser.node.ALeqExpr;
+import parser.node.AListConstructorExpr;
+import parser.node.AListExpr;
+import parser.node.ALtExpr;
+import parser.node.ANeqExpr;
+import parser.node.ANumberExpr;
+import parser.node.ARule;
+import parser.node.AVarExpr;
+import parser.node.PExpr;
+import parser.node.TIdent;
+
+/*
+ * classifies a rule by the shapes its ask-constraints require from its parameters:
+ * # X = 5         -> X must be the integer 5
+ * # X = []        -> X must be the empty list
+ * # X = [A|T]     -> X must be a non-empty list
+ * # X =//= [...]  -> X must be a bound list
+ * # X < E, X = E  -> X must be an integer (E is an arithmetic expression)
+ * # X = Y         -> X and Y must be initialized
+ * parameters occurring within list patterns are not classified since matching may bind them,
+ * even where another ask-constraint of the rule inspects them
+ */
+
+public final class ClauseClassifier extends DepthFirstAdapter {
+
+	/**
+	 * maps parameter names to their position in the rule head
+	 */
+	private final Map<String, Integer> parameters;
+
+	/**
+	 * the inferred shape of each parameter
+	 */
+	private final ParameterShape[] shapes;
+
+	/**
+	 * the positions of the parameters occurring within list patterns
+	 */
+	private final Set<Integer> matched;
+
+	public ClauseClassifier(AHead head) {
+		this.parameters = new HashMap<>();
+		List<TIdent> params = new ArrayList<TIdent>(head.getParams());
+		for(int i=0; i<params.size(); ++i) {
+			parameters.put(params.get(i).getText(), i);
+		}
+		this.shapes = new ParameterShape[params.size()];
+		for(int i=0; i<shapes.length; ++i) {
+			shapes[i] = ParameterShape.ANY;
+		}
+		this.matched = new HashSet<>();
+	}
+
+	public ParameterShape[] getShapes() {
+		return shapes;
+	}
+
+	/**
+	 * only visits the ask-constraints of the rule
+	 */
+	@Override
+	public void caseARule(ARule node) {
+		List<PExpr> copy = new ArrayList<PExpr>(node.getAsk());
+        for(PExpr e : copy) {
+            e.apply(this);
+        }
+        for(Integer index : matched) {
+        	shapes[index] = ParameterShape.ANY;
+        }
+	}
+
+	@Override
+	public void caseAEqExpr(AEqExpr node) {
+		PExpr expr = node.getExpr();
+		if(expr instanceof ANumberExpr) {
+			int n = Integer.parseInt(((ANumberExpr) expr).getValue().getText());
+			require(node.getVar(), ParameterShape.intConstant(n));
+		} else if(expr instanceof AListExpr) {
+			match(expr);
+			if(((AListExpr) expr).getElements().isEmpty()) {
+				require(node.getVar(), ParameterShape.EMPTY_LIST);
+			} else {
+				require(node.getVar(), ParameterShape.CONS);
+			}
+		} else if(expr instanceof AListConstructorExpr) {
+			match(expr);
+			if(((AListConstructorExpr) expr).getHead().isEmpty()) {
+				require(node.getVar(), ParameterShape.LIST);
+			} else {
+				require(node.getVar(), ParameterShape.CONS);
+			}
+		} else {
+			classifyComparison(node.getVar(), expr);
+		}
+	}
+
+	@Override
+	public void caseANeqExpr(ANeqExpr node) {
+		PExpr expr = node.getExpr();
+		if(expr instanceof AListExpr || expr instanceof AListConstructorExpr) {
+			match(expr);
+			require(node.getVar(), ParameterShape.LIST);
+		} else {
+			classifyComparison(node.getVar(), expr);
+		}
+	}
+
+	@Override
+	public void caseALtExpr(ALtExpr node) {
+		require(node.getVar(), ParameterShape.INTEGER);
+		node.getExpr().apply(this);
+	}
+
+	@Override
+	public void caseAGtExpr(AGtExpr node) {
+		require(node.getVar(), ParameterShape.INTEGER);
+		node.getExpr().apply(this);
+	}
+
+	@Override
+	public void caseALeqExpr(ALeqExpr node) {
+		require(node.getVar(), ParameterShape.INTEGER);
+		node.getExpr().apply(this);
+	}
+
+	@Override
+	public void caseAGeqExpr(AGeqExpr node) {
+		require(node.getVar(), ParameterShape.INTEGER);
+		node.getExpr().apply(this);
+	}
+
+	/**
+	 * variables of arithmetic expressions must be initialized
+	 */
+	@Override
+	public void caseAVarExpr(AVarExpr node) {
+		require(node.getName(), ParameterShape.BOUND);
+	}
+
+	private void classifyComparison(TIdent var, PExpr expr) {
+		if(expr instanceof AVarExpr) {
+			//may compare integers or lists
+			require(var, ParameterShape.BOUND);
+		} else {
+			require(var, ParameterShape.INTEGER);
+		}
+		expr.apply(this);
+	}
+
+	/**
+	 * excludes the parameters occurring within a list pattern from classification
+	 */
+	private void match(PExpr pattern) {
+		pattern.apply(new DepthFirstAdapter() {
+			@Override
+			public void caseAVarExpr(AVarExpr node) {
+				Integer index = parameters.get(node.getName().getText());
+				if(index != null) {
+					matched.add(index);
+				}
+			}
+		});
+	}
+
+	private void require(TIdent var, ParameterShape shape) {
+		Integer index = parameters.get(var.getText());
+		if(index != null) {
+			shapes[index] = shapes[index].refine(shape);
+		}
+	}
+}
@@ -1,8 +1,9 @@
 package checker;
 
+import interpreter.code.RuleCompiler;
 import interpreter.data.Closure;
-import interpreter.data.Environment;
-import interpreter.data.Value;
+import interpreter.data.FrameLayout;
+import interpreter.data.Program;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -87,6 +88,13 @@ public final class ContextChecker extends DepthFirstAdapter
 	public List<String> getMessages() {
 		return messages;
 	}
+	
+	/**
+	 * @return an immutable image of all closures checked so far
+	 */
+	public Program getProgram() {
+		return new Program(program);
+	}
 
 	@Override
 	public void caseAProg(AProg node) {
@@ -113,22 +121,30 @@ public final class ContextChecker extends DepthFirstAdapter
 
 	@Override
 	public void caseARule(ARule node) {
+		int errors = messages.size();
+		
 		//apply context check to this rule
 		node.getHead().apply(this);
         node.apply(new AskContextChecker(localSymbolTable, messages));
         node.apply(new TellContextChecker(localSymbolTable, messages));
         node.apply(new BodyContextChecker(localSymbolTable, globalSymbolTable, messages));
         
+        //a program with errors is rejected, so its faulty rules are not compiled
+        if(messages.size() > errors) {
+            return;
+        }
+        
         //create closure for this rule
         AHead head = ((AHead)node.getHead());
         String ruleName = head.getName().getText();
         int arity = head.getParams().size();
         List<Closure> rules = program.get(ruleName + "/" + arity);
-        Environment environment = new Environment();
-        for(Map.Entry<String, Type> e : localSymbolTable.entrySet()) {
-        	environment.put(e.getKey(), new Value(e.getKey()));
-        }
-        rules.add(new Closure(node, environment));
+        SlotResolver resolver = new SlotResolver(head, localSymbolTable.keySet());
+        node.apply(resolver);
+        FrameLayout layout = resolver.getLayout();
+        ClauseClassifier classifier = new ClauseClassifier(head);
+        node.apply(classifier);
+        rules.add(new Closure(node, layout, classifier.getShapes(), new RuleCompiler(layout).compile(node)));
 	}
 	
 	@Override
@@ -0,0 +1,67 @@
+package checker;
+
+import interpreter.data.FrameLayout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import parser.analysis.DepthFirstAdapter;
+import parser.node.AHead;
+import parser.node.TIdent;
+
+/*
+ * resolves all variables of a rule to the slots of its activation frames:
+ * # parameters get the first slots in the order of the rule head
+ * # all other variables follow in the order of their first occurrence
+ * # every token naming a variable is mapped to the slot of that variable
+ */
+
+public final class SlotResolver extends DepthFirstAdapter {
+
+	/**
+	 * the names of all variables declared within the rule
+	 */
+	private final Set<String> variables;
+	
+	private final List<String> names;
+	private final Map<String, Integer> slots;
+	private final IdentityHashMap<TIdent, Integer> slotsByToken;
+	
+	public SlotResolver(AHead head, Set<String> variables) {
+		this.variables = variables;
+		this.names = new ArrayList<>();
+		this.slots = new HashMap<>();
+		this.slotsByToken = new IdentityHashMap<>();
+		for(TIdent param : head.getParams()) {
+			resolve(param);
+		}
+	}
+	
+	public FrameLayout getLayout() {
+		return new FrameLayout(names, slotsByToken);
+	}
+	
+	@Override
+	public void caseTIdent(TIdent node) {
+		resolve(node);
+	}
+	
+	private void resolve(TIdent token) {
+		String name = token.getText();
+		if(!variables.contains(name)) {
+			//predicate names
+			return;
+		}
+		Integer slot = slots.get(name);
+		if(slot == null) {
+			slot = names.size();
+			names.add(name);
+			slots.put(name, slot);
+		}
+		slotsByToken.put(token, slot);
+	}
+}
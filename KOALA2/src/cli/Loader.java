@@ -0,0 +1,93 @@
+package cli;
+
+import interpreter.code.CodeExecutor;
+import interpreter.data.Closure;
+import interpreter.data.Environment;
+import interpreter.data.Literal;
+import interpreter.data.Program;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import parser.lexer.Lexer;
+import parser.lexer.LexerException;
+import parser.parser.Parser;
+import parser.parser.ParserException;
+import checker.ContextChecker;
+
+/**
+ * Parses and checks programs and goals without any user interface.
+ */
+public final class Loader {
+
+	/**
+	 * all error messages of the latest call
+	 */
+	private final List<String> messages;
+
+	public Loader() {
+		this.messages = new LinkedList<>();
+	}
+
+	public List<String> getMessages() {
+		return messages;
+	}
+
+	/**
+	 * parses and checks a program
+	 *
+	 * @param source
+	 * 						the program text
+	 * @return the checked program or null if it contains errors
+	 */
+	public Program loadProgram(Reader source) throws IOException {
+		messages.clear();
+		ContextChecker checker = new ContextChecker(new HashMap<String, List<Closure>>());
+		try {
+			Parser p = new Parser(new Lexer(new PushbackReader(source)));
+			p.parse().apply(checker);
+			messages.addAll(checker.getMessages());
+		} catch (ParserException | LexerException e) {
+			messages.add(e.getMessage());
+		}
+		return messages.isEmpty() ? checker.getProgram() : null;
+	}
+
+	/**
+	 * parses and checks a goal, i.e. a comma separated list of predicate calls
+	 *
+	 * @param goalString
+	 * 						the goal text
+	 * @param program
+	 * 						the program the goal is stated for
+	 * @param goal
+	 * 						receives the literals of the goal
+	 * @return true if the goal is free of errors
+	 */
+	public boolean loadGoal(String goalString, Program program, List<Literal> goal) throws IOException {
+		messages.clear();
+		String source = "GOAL(A):-true:true|" + goalString + ".";
+		Map<String, List<Closure>> goalSt = new HashMap<>(program.getClosures());
+		try {
+			Parser p = new Parser(new Lexer(new PushbackReader(new StringReader(source))));
+			ContextChecker checker = new ContextChecker(goalSt);
+			p.parse().apply(checker);
+			messages.addAll(checker.getMessages());
+		} catch (ParserException | LexerException e) {
+			messages.add(e.getMessage());
+		}
+		if(!messages.isEmpty()) {
+			return false;
+		}
+		Closure c = goalSt.get("GOAL/1").get(0);
+		goal.clear();
+		CodeExecutor.spawn(c.getCode(), new Environment(c.getLayout()), goal);
+		return true;
+	}
+}
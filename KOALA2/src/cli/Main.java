@@ -0,0 +1,361 @@
+package cli;
+
+import interpreter.Interpreter;
+import interpreter.data.ChocoStore;
+import interpreter.data.ChocoStore.AskTier;
+import interpreter.data.IncrementalChocoStore;
+import interpreter.data.Literal;
+import interpreter.data.PartitionedChocoStore;
+import interpreter.data.Program;
+import interpreter.data.Value;
+import interpreter.strat.CustomLiteralSelector;
+import interpreter.strat.CustomRuleSelector;
+import interpreter.strat.FifoScheduler;
+import interpreter.strat.LifoScheduler;
+import interpreter.strat.LiteralSelector;
+import interpreter.strat.PriorityScheduler;
+import interpreter.strat.RandomLiteralSelector;
+import interpreter.strat.RandomRuleSelector;
+import interpreter.strat.RandomScheduler;
+import interpreter.strat.RuleSelector;
+import interpreter.strat.Scheduler;
+import interpreter.trace.ConsoleTraceListener;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line entry point: loads a program, runs a goal without the
+ * graphical interface and reports the results together with the number of
+ * steps, the number of asks decided by each tier of the store and the wall
+ * time of the run.
+ *
+ * usage: Main [options] <program-file> <goal>
+ */
+public final class Main {
+
+	public static final int EXIT_FINISHED = 0;
+	public static final int EXIT_ERROR = 1;
+	public static final int EXIT_DEADLOCK = 2;
+	public static final int EXIT_LIMIT = 3;
+
+	private static final String USAGE =
+			"usage: Main [options] <program-file> <goal>\n"
+			+ "options:\n"
+			+ "  --steps <n>                   stop after n steps\n"
+			+ "  --time <millis>               stop after the given wall time\n"
+			+ "  --literal-strategy <strategy> random[:seed] (default) or the index of the literal to select\n"
+			+ "  --rule-strategy <strategy>    random[:seed] (default) or the index of the rule to select\n"
+			+ "  --scheduler <scheduler>       try one literal per step instead of selecting among all:\n"
+			+ "                                fifo, lifo, random[:seed] or priority:<name>/<arity>=<n>,...\n"
+			+ "  --parallel <threads>          reduce independent literals on the given number of threads\n"
+			+ "  --speculative <threads>       check literals optimistically on the given number of threads\n"
+			+ "  --gc <steps>                  collect unreachable store variables every given number of steps\n"
+			+ "  --domain <lower>..<upper>     bounds of all integer variables (default: the domain of the solver)\n"
+			+ "  --store <store>               reference (default), incremental or partitioned\n"
+			+ "  --trace                       print every step of the interpreter";
+
+	private Main() {
+	}
+
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	/**
+	 * @return the exit code of the run
+	 */
+	public static int run(String[] args) {
+		long maxSteps = Runner.UNLIMITED;
+		long maxMillis = Runner.UNLIMITED;
+		LiteralSelector literalSelector = Interpreter.DEFAULT_LITERAL_SELECTOR;
+		RuleSelector ruleSelector = Interpreter.DEFAULT_RULE_SELECTOR;
+		Scheduler scheduler = null;
+		int threads = 0;
+		boolean speculative = false;
+		int collectionInterval = 0;
+		int[] domain = null;
+		ChocoStore store = null;
+		boolean trace = false;
+		List<String> operands = new LinkedList<>();
+
+		try {
+			for(int i=0; i<args.length; ++i) {
+				switch(args[i]) {
+				case "--steps":
+					maxSteps = parseLimit(args, ++i);
+					break;
+				case "--time":
+					maxMillis = parseLimit(args, ++i);
+					break;
+				case "--literal-strategy":
+					literalSelector = parseLiteralSelector(option(args, ++i));
+					break;
+				case "--rule-strategy":
+					ruleSelector = parseRuleSelector(option(args, ++i));
+					break;
+				case "--scheduler":
+					scheduler = parseScheduler(option(args, ++i));
+					break;
+				case "--parallel":
+				case "--speculative":
+					speculative = args[i].equals("--speculative");
+					threads = (int) Math.min(parseLimit(args, ++i), Integer.MAX_VALUE);
+					if(threads == 0) {
+						throw new IllegalArgumentException("no threads for " + args[i-1]);
+					}
+					break;
+				case "--gc":
+					collectionInterval = (int) Math.min(parseLimit(args, ++i), Integer.MAX_VALUE);
+					break;
+				case "--domain":
+					domain = parseDomain(option(args, ++i));
+					break;
+				case "--store":
+					store = createStore(option(args, ++i));
+					break;
+				case "--trace":
+					trace = true;
+					break;
+				default:
+					if(args[i].startsWith("--")) {
+						throw new IllegalArgumentException("unknown option " + args[i]);
+					}
+					operands.add(args[i]);
+				}
+			}
+			if(threads > 0 && scheduler != null) {
+				throw new IllegalArgumentException((speculative ? "--speculative" : "--parallel") + " cannot be combined with --scheduler");
+			}
+			if(operands.size() != 2) {
+				throw new IllegalArgumentException("expected a program file and a goal");
+			}
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			return EXIT_ERROR;
+		}
+
+		Loader loader = new Loader();
+		Program program;
+		List<Literal> goal = new LinkedList<>();
+		try (Reader reader = new FileReader(operands.get(0))) {
+			program = loader.loadProgram(reader);
+			if(program == null) {
+				printErrors(loader.getMessages());
+				return EXIT_ERROR;
+			}
+			if(!loader.loadGoal(operands.get(1), program, goal)) {
+				printErrors(loader.getMessages());
+				return EXIT_ERROR;
+			}
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			return EXIT_ERROR;
+		}
+
+		Runner runner = new Runner(program, goal, literalSelector, ruleSelector,
+				store != null ? store : new ChocoStore());
+		runner.setScheduler(scheduler);
+		ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : null;
+		if(speculative) {
+			runner.setSpeculation(pool);
+		} else {
+			runner.setPool(pool);
+		}
+		runner.getInterpreter().setGarbageCollection(collectionInterval, 0);
+		if(domain != null) {
+			try {
+				runner.getInterpreter().setDomain(domain[0], domain[1]);
+			} catch (IllegalArgumentException e) {
+				System.err.println(e.getMessage());
+				return EXIT_ERROR;
+			}
+		}
+		if(trace) {
+			runner.getInterpreter().setTraceListener(new ConsoleTraceListener(runner.getInterpreter()));
+		}
+		Runner.Status status;
+		try {
+			status = runner.run(maxSteps, maxMillis);
+		} catch (IllegalStateException e) {
+			System.err.println(e.getMessage() + " after " + runner.getSteps() + " steps");
+			return EXIT_ERROR;
+		} finally {
+			if(pool != null) {
+				pool.shutdown();
+			}
+		}
+
+		Interpreter interpreter = runner.getInterpreter();
+		for(Literal literal : runner.getInitialGoal()) {
+			System.out.println(printLiteral(interpreter, literal));
+		}
+		if(!runner.getGoal().isEmpty()) {
+			System.out.println("remaining goal:");
+			for(Literal literal : runner.getGoal()) {
+				System.out.println("  " + printLiteral(interpreter, literal));
+			}
+		}
+		System.out.println("status: " + status);
+		System.out.println("steps: " + runner.getSteps());
+		System.out.println("asks: " + interpreter.getAskCount(AskTier.PROPAGATION) + " by propagation, "
+				+ interpreter.getAskCount(AskTier.SEARCH) + " by search");
+		if(collectionInterval > 0) {
+			System.out.println("collected: " + interpreter.getCollectedGarbage());
+		}
+		if(pool != null) {
+			System.out.println("rounds: " + runner.getRounds());
+		}
+		if(speculative) {
+			System.out.println("conflicts: " + runner.getSpeculativeInterpreter().getConflictCount()
+					+ " of " + runner.getSpeculativeInterpreter().getCheckCount() + " checks");
+		}
+		System.out.println("time: " + runner.getElapsedMillis() + " ms");
+
+		switch(status) {
+		case FINISHED:
+			return EXIT_FINISHED;
+		case DEADLOCK:
+			return EXIT_DEADLOCK;
+		default:
+			return EXIT_LIMIT;
+		}
+	}
+
+	private static String option(String[] args, int i) {
+		if(i >= args.length) {
+			throw new IllegalArgumentException("missing value for " + args[i-1]);
+		}
+		return args[i];
+	}
+
+	private static long parseLimit(String[] args, int i) {
+		String value = option(args, i);
+		try {
+			long limit = Long.parseLong(value);
+			if(limit < 0) {
+				throw new IllegalArgumentException("negative value for " + args[i-1]);
+			}
+			return limit;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("not a number: " + value);
+		}
+	}
+
+	/**
+	 * @return the lower and the upper bound of a domain lower..upper
+	 */
+	private static int[] parseDomain(String domain) {
+		int separator = domain.indexOf("..");
+		if(separator < 0) {
+			throw new IllegalArgumentException("expected <lower>..<upper> instead of " + domain);
+		}
+		try {
+			return new int[] {
+					Integer.parseInt(domain.substring(0, separator)),
+					Integer.parseInt(domain.substring(separator + 2))};
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("not a domain: " + domain);
+		}
+	}
+
+	private static ChocoStore createStore(String store) {
+		switch(store) {
+		case "reference":
+			return new ChocoStore();
+		case "incremental":
+			return new IncrementalChocoStore();
+		case "partitioned":
+			return new PartitionedChocoStore();
+		default:
+			throw new IllegalArgumentException("unknown store " + store);
+		}
+	}
+
+	private static LiteralSelector parseLiteralSelector(String strategy) {
+		if(strategy.equals("random")) {
+			return new RandomLiteralSelector();
+		} else if(strategy.startsWith("random:")) {
+			return new RandomLiteralSelector(parseSeed(strategy));
+		}
+		return new CustomLiteralSelector(parseIndex(strategy));
+	}
+
+	private static RuleSelector parseRuleSelector(String strategy) {
+		if(strategy.equals("random")) {
+			return new RandomRuleSelector();
+		} else if(strategy.startsWith("random:")) {
+			return new RandomRuleSelector(parseSeed(strategy));
+		}
+		return new CustomRuleSelector(parseIndex(strategy));
+	}
+
+	private static Scheduler parseScheduler(String scheduler) {
+		if(scheduler.equals("fifo")) {
+			return new FifoScheduler();
+		} else if(scheduler.equals("lifo")) {
+			return new LifoScheduler();
+		} else if(scheduler.equals("random")) {
+			return new RandomScheduler();
+		} else if(scheduler.startsWith("random:")) {
+			return new RandomScheduler(parseSeed(scheduler));
+		} else if(scheduler.startsWith("priority:")) {
+			PriorityScheduler priorities = new PriorityScheduler();
+			for(String assignment : scheduler.substring("priority:".length()).split(",")) {
+				int eq = assignment.indexOf('=');
+				if(eq < 0 || assignment.indexOf('/') < 0) {
+					throw new IllegalArgumentException("expected <name>/<arity>=<priority>: " + assignment);
+				}
+				try {
+					priorities.setPriority(assignment.substring(0, eq), Integer.parseInt(assignment.substring(eq + 1)));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("not a number: " + assignment.substring(eq + 1));
+				}
+			}
+			return priorities;
+		}
+		throw new IllegalArgumentException("unknown scheduler " + scheduler);
+	}
+
+	private static long parseSeed(String strategy) {
+		String seed = strategy.substring(strategy.indexOf(':') + 1);
+		try {
+			return Long.parseLong(seed);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("not a seed: " + seed);
+		}
+	}
+
+	private static int parseIndex(String strategy) {
+		try {
+			int index = Integer.parseInt(strategy);
+			if(index < 0) {
+				throw new IllegalArgumentException("negative index " + strategy);
+			}
+			return index;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("unknown strategy " + strategy);
+		}
+	}
+
+	private static void printErrors(List<String> messages) {
+		for(String message : messages) {
+			System.err.println(message);
+		}
+	}
+
+	private static String printLiteral(Interpreter interpreter, Literal literal) {
+		StringBuilder s = new StringBuilder(literal.getName()).append("(");
+		String separator = "";
+		for(Value arg : literal.getArgs()) {
+			s.append(separator).append(interpreter.getResultString(arg));
+			separator = ", ";
+		}
+		return s.append(")").toString();
+	}
+}
@@ -0,0 +1,248 @@
+package cli;
+
+import interpreter.Interpreter;
+import interpreter.SpeculativeInterpreter;
+import interpreter.agenda.Goal;
+import interpreter.data.ChocoStore;
+import interpreter.data.Closure;
+import interpreter.data.Literal;
+import interpreter.data.Program;
+import interpreter.strat.LiteralSelector;
+import interpreter.strat.RuleSelector;
+import interpreter.strat.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import util.Tuple;
+
+/**
+ * Runs a goal to completion without any user interaction, optionally
+ * limited by a number of steps or by wall time.
+ */
+public final class Runner {
+
+	public enum Status {
+		/** the goal has been reduced completely */
+		FINISHED,
+		/** literals remain but none of them can be reduced */
+		DEADLOCK,
+		/** the step budget has been used up */
+		STEP_LIMIT,
+		/** the time budget has been used up */
+		TIME_LIMIT
+	}
+
+	/**
+	 * no limit on steps or time
+	 */
+	public static final long UNLIMITED = -1;
+
+	private final Interpreter interpreter;
+	private final List<Literal> initialGoal;
+	private final LiteralSelector literalSelector;
+	private final RuleSelector ruleSelector;
+
+	/**
+	 * reduces independent literals in parallel if set
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * checks literals speculatively in parallel if set
+	 */
+	private SpeculativeInterpreter speculative;
+
+	private long steps;
+	private long rounds;
+	private long elapsedMillis;
+
+	public Runner(Program program,
+				  List<Literal> goal,
+				  LiteralSelector literalSelector,
+				  RuleSelector ruleSelector) {
+		this(program, goal, literalSelector, ruleSelector, new ChocoStore());
+	}
+
+	/**
+	 * @param store
+	 * 						the constraint store the goal is run against
+	 */
+	public Runner(Program program,
+				  List<Literal> goal,
+				  LiteralSelector literalSelector,
+				  RuleSelector ruleSelector,
+				  ChocoStore store) {
+		this.interpreter = new Interpreter(program, goal, store);
+		this.initialGoal = new ArrayList<>(goal);
+		this.literalSelector = literalSelector;
+		this.ruleSelector = ruleSelector;
+		this.pool = null;
+		this.speculative = null;
+		this.steps = 0;
+		this.rounds = 0;
+		this.elapsedMillis = 0;
+	}
+
+	/**
+	 * lets the given scheduler choose the literal of each step instead of the
+	 * literal selector, see {@link Interpreter#step(RuleSelector)}
+	 *
+	 * @param scheduler
+	 * 						the scheduler or null to select among all alternatives
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		interpreter.setScheduler(scheduler);
+	}
+
+	/**
+	 * lets every step reduce a set of independent literals on the given pool
+	 * instead of a single literal, see
+	 * {@link Interpreter#interpretParallel(RuleSelector, ForkJoinPool)};
+	 * the literal selector is not used then
+	 *
+	 * @param pool
+	 * 						the pool or null to reduce one literal per step
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * lets every step check all literals speculatively on the given pool and
+	 * then reduce all runnable ones, see {@link SpeculativeInterpreter};
+	 * the literal selector is not used then
+	 *
+	 * @param pool
+	 * 						the pool or null to reduce one literal per step
+	 */
+	public void setSpeculation(ForkJoinPool pool) {
+		this.speculative = pool == null ? null : new SpeculativeInterpreter(interpreter, pool);
+	}
+
+	/**
+	 * @return the speculative engine driving the interpreter, null if the
+	 * 			literals are not checked speculatively
+	 */
+	public SpeculativeInterpreter getSpeculativeInterpreter() {
+		return speculative;
+	}
+
+	/**
+	 * reduces the goal until it is empty, deadlocked or a budget is used up
+	 *
+	 * @param maxSteps
+	 * 						maximum number of steps or UNLIMITED
+	 * @param maxMillis
+	 * 						maximum wall time in milliseconds or UNLIMITED
+	 * @return the reason the run stopped
+	 */
+	public Status run(long maxSteps, long maxMillis) {
+		long start = System.currentTimeMillis();
+		try {
+			if(interpreter.getScheduler() != null) {
+				return runScheduled(maxSteps, maxMillis, start);
+			} else if(speculative != null) {
+				return runSpeculative(maxSteps, maxMillis, start);
+			}
+			while(true) {
+				List<Tuple<Literal, List<Closure>>> alternatives = interpreter.detectAlternatives();
+				if(alternatives.isEmpty()) {
+					return interpreter.getGoal().isEmpty() ? Status.FINISHED : Status.DEADLOCK;
+				}
+				if(maxSteps != UNLIMITED && steps >= maxSteps) {
+					return Status.STEP_LIMIT;
+				}
+				if(maxMillis != UNLIMITED && System.currentTimeMillis() - start >= maxMillis) {
+					return Status.TIME_LIMIT;
+				}
+				++rounds;
+				if(pool != null) {
+					steps += interpreter.interpretParallel(ruleSelector, pool);
+					continue;
+				}
+				int literal = interpreter.selectLiteral(literalSelector);
+				if(literal < 0 || literal >= alternatives.size()) {
+					throw new IllegalStateException("literal selector returned no valid alternative");
+				}
+				int rule = interpreter.selectRule(ruleSelector);
+				if(rule < 0 || rule >= alternatives.get(literal).getSecond().size()) {
+					throw new IllegalStateException("rule selector returned no valid alternative");
+				}
+				interpreter.interpret();
+				++steps;
+			}
+		} finally {
+			elapsedMillis += System.currentTimeMillis() - start;
+		}
+	}
+
+	private Status runScheduled(long maxSteps, long maxMillis, long start) {
+		while(true) {
+			if(maxSteps != UNLIMITED && steps >= maxSteps) {
+				return interpreter.getGoal().isEmpty() ? Status.FINISHED : Status.STEP_LIMIT;
+			}
+			if(maxMillis != UNLIMITED && System.currentTimeMillis() - start >= maxMillis) {
+				return interpreter.getGoal().isEmpty() ? Status.FINISHED : Status.TIME_LIMIT;
+			}
+			if(!interpreter.step(ruleSelector)) {
+				return interpreter.getGoal().isEmpty() ? Status.FINISHED : Status.DEADLOCK;
+			}
+			++steps;
+			++rounds;
+		}
+	}
+
+	private Status runSpeculative(long maxSteps, long maxMillis, long start) {
+		while(true) {
+			if(maxSteps != UNLIMITED && steps >= maxSteps) {
+				return interpreter.getGoal().isEmpty() ? Status.FINISHED : Status.STEP_LIMIT;
+			}
+			if(maxMillis != UNLIMITED && System.currentTimeMillis() - start >= maxMillis) {
+				return interpreter.getGoal().isEmpty() ? Status.FINISHED : Status.TIME_LIMIT;
+			}
+			int reduced = speculative.step(ruleSelector);
+			if(reduced == 0) {
+				return interpreter.getGoal().isEmpty() ? Status.FINISHED : Status.DEADLOCK;
+			}
+			steps += reduced;
+			++rounds;
+		}
+	}
+
+	public Interpreter getInterpreter() {
+		return interpreter;
+	}
+
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * @return the number of steps that have been run, less than the number
+	 * 			of reductions if literals have been reduced in parallel
+	 */
+	public long getRounds() {
+		return rounds;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * @return the literals left to be reduced
+	 */
+	public Goal getGoal() {
+		return interpreter.getGoal();
+	}
+
+	/**
+	 * @return the literals of the goal as it was before the first step,
+	 * 			their arguments carry the results of the run
+	 */
+	public List<Literal> getInitialGoal() {
+		return initialGoal;
+	}
+}
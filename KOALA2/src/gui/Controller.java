@@ -1,10 +1,12 @@
 package gui;
 
 import interpreter.Interpreter;
+import interpreter.code.CodeExecutor;
 import interpreter.data.Closure;
+import interpreter.data.Environment;
 import interpreter.data.Literal;
+import interpreter.data.Program;
 import interpreter.data.Value;
-import interpreter.eval.BodyEvaluator;
 import interpreter.strat.CustomLiteralSelector;
 import interpreter.strat.CustomRuleSelector;
 import interpreter.strat.LiteralSelector;
@@ -139,7 +141,7 @@ public class Controller {
     private File currentFile = null;
 	boolean isRunning;
     private Interpreter interpreter = null;
-    private Map<String, List<Closure>> program = new HashMap<>();
+    private Program program = new Program();
     private List<Literal> goal = new LinkedList<>();
 	private List<Tuple<Literal, List<Closure>>> alternatives = null;
 	private List<Literal> initialGoal = new LinkedList<>();
@@ -463,23 +465,22 @@ public class Controller {
     
     private void openFile(File file) {
     	try {
-    		program.clear();
+    		program = new Program();
 			Parser p = new Parser(new Lexer(new PushbackReader(new FileReader(file))));
-			ContextChecker checker = new ContextChecker(program);
+			ContextChecker checker = new ContextChecker(new HashMap<String, List<Closure>>());
 			p.parse().apply(checker);
 			if(!checker.getMessages().isEmpty()) {
 				printMessage("File '" + file + "' contains errors!");
 				for(String msg : checker.getMessages()) {
 					printMessage(msg);
 				}
-				program.clear();
 			} else {
+				program = checker.getProgram();
 				printMessage("> File '" + file + "' was compiled successfully!\n");
 			}
 		} catch (ParserException | LexerException e) {
 			printMessage("> File '" + file + "' contains errors!\n");
 			printMessage(e.getMessage());
-			program.clear();
 		} catch(IOException e) {
 			e.printStackTrace();
 		}
@@ -502,7 +503,7 @@ public class Controller {
     	String goalString = initialGoalTextField.getText();
     	goalString = "GOAL(A):-true:true|" + goalString + ".";
     	Parser p = new Parser(new Lexer(new PushbackReader(new StringReader(goalString))));
-		Map<String, List<Closure>> goalSt = new HashMap<>(program);
+		Map<String, List<Closure>> goalSt = new HashMap<>(program.getClosures());
 		ContextChecker checker = new ContextChecker(goalSt);
 		try {
 			p.parse().apply(checker);
@@ -514,7 +515,7 @@ public class Controller {
 				printMessage("> Goal was compiled successfully!\n");
 				Closure c = goalSt.get("GOAL/1").get(0);
 				goal.clear();
-				c.getRule().apply(new BodyEvaluator(c.getEnvironment(), goal, -1));
+				CodeExecutor.spawn(c.getCode(), new Environment(c.getLayout()), goal);
 				return true;
 			}
 		} catch (ParserException | LexerException e) {
@@ -621,7 +622,7 @@ public class Controller {
 		alternatives = interpreter.detectAlternatives();
 		if(alternatives.isEmpty()) {
 			stop();
-			if(goal.isEmpty()) {
+			if(interpreter.getGoal().isEmpty()) {
 				printMessage("> Evaluation finished!");
 				statusLabel.setText("Status: finished");
 			} else {
@@ -1,78 +1,340 @@
 package interpreter;
 
+import interpreter.agenda.Agenda;
+import interpreter.agenda.AgendaEntry;
+import interpreter.agenda.Commit;
+import interpreter.agenda.Footprint;
+import interpreter.agenda.Goal;
+import interpreter.code.CodeExecutor;
+import interpreter.code.RuleCode;
 import interpreter.data.ChocoStore;
+import interpreter.data.ChocoStore.AskTier;
 import interpreter.data.Closure;
 import interpreter.data.Environment;
+import interpreter.data.FramePool;
+import interpreter.data.Garbage;
+import interpreter.data.Program;
 import interpreter.data.ListVariable;
 import interpreter.data.Literal;
+import interpreter.data.PartitionedChocoStore;
 import interpreter.data.Value;
-import interpreter.eval.AskEvaluator;
-import interpreter.eval.BodyEvaluator;
-import interpreter.eval.TellCheckEvaluator;
-import interpreter.eval.TellEvaluator;
 import interpreter.strat.LiteralSelector;
 import interpreter.strat.RandomLiteralSelector;
 import interpreter.strat.RandomRuleSelector;
 import interpreter.strat.RuleSelector;
+import interpreter.strat.Scheduler;
+import interpreter.trace.TraceAdapter;
+import interpreter.trace.TraceListener;
+import interpreter.trace.TraceListener.Phase;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import parser.node.AHead;
 import parser.node.ARule;
-import parser.node.TIdent;
-import util.PrettyPrinter;
 import util.Tuple;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerVariable;
 
 public final class Interpreter {
 
 	public static final LiteralSelector DEFAULT_LITERAL_SELECTOR = new RandomLiteralSelector();
 	public static final RuleSelector DEFAULT_RULE_SELECTOR = new RandomRuleSelector();
 	
-	private final Map<String, List<Closure>> program;
-	private final List<Literal> goal;
+	private final Program program;
+	private final Goal goal;
+	
+	/**
+	 * the literals of the initial goal, whose arguments carry the results
+	 * and are kept alive by store collections
+	 */
+	private final List<Literal> initialGoal;
 	
 	private final List<Tuple<Literal, List<Closure>>> alternatives;
 	private final Tuple<Integer, Integer> selection;
-	private final List<Integer> literalIndexList;
+	
+	/**
+	 * the goal node of the literal of each alternative
+	 */
+	private final List<Goal.Node> alternativeNodes;
 	
 	private final ChocoStore store;
 	
-	public Interpreter(Map<String, List<Closure>> program, List<Literal> goal) {
+	private final Agenda agenda;
+	
+	/**
+	 * activation frames of this interpreter, a frame is in use from checking a
+	 * closure against a literal until the check fails or the literal is
+	 * reduced or checked again
+	 */
+	private final FramePool frames;
+	
+	private final CodeExecutor executor;
+	
+	/**
+	 * decides the literal to be tried by {@link #step(RuleSelector)}, null
+	 * as long as the interpreter is driven by {@link #detectAlternatives()}
+	 */
+	private Scheduler scheduler;
+	
+	private TraceListener trace;
+	
+	/**
+	 * the number of reductions and tells after which the store is collected,
+	 * 0 to never collect automatically
+	 */
+	private int collectionInterval;
+	private int collectionThreshold;
+	
+	private int reductionsSinceCollection;
+	private long versionAtCollection;
+	private Garbage collected;
+	
+	public Interpreter(Program program, List<Literal> goal) {
+		this(program, goal, new ChocoStore());
+	}
+	
+	/**
+	 * creates an interpreter working on the given store; the other constructor
+	 * uses the reference {@link ChocoStore}, pass an
+	 * {@link interpreter.data.IncrementalChocoStore} or a
+	 * {@link PartitionedChocoStore} to opt in to a store keeping live solvers
+	 * 
+	 * @param goal
+	 * 						the initial literals, the list itself is left unchanged,
+	 * 						see {@link #getGoal()} for the literals left to be reduced
+	 */
+	public Interpreter(Program program, List<Literal> goal, ChocoStore store) {
 		this.program = program;
-		this.goal = goal;
+		this.goal = new Goal(goal);
+		this.initialGoal = new ArrayList<>(goal);
 		this.alternatives = new ArrayList<>();
-		this.literalIndexList = new ArrayList<>();
+		this.alternativeNodes = new ArrayList<>();
 		this.selection = new Tuple<>(-1, -1);
-		this.store = new ChocoStore();
+		this.store = store;
+		this.agenda = new Agenda();
+		this.frames = new FramePool();
+		this.executor = new CodeExecutor(store);
+		this.scheduler = null;
+		this.trace = new TraceAdapter();
+		this.collectionInterval = 0;
+		this.collectionThreshold = 0;
+		this.reductionsSinceCollection = 0;
+		this.versionAtCollection = store.getVersion();
+		this.collected = Garbage.NONE;
+	}
+	
+	public TraceListener getTraceListener() {
+		return trace;
+	}
+	
+	/**
+	 * @param trace
+	 * 						receives the steps of the interpreter or null to disable tracing
+	 */
+	public void setTraceListener(TraceListener trace) {
+		this.trace = trace == null ? new TraceAdapter() : trace;
+	}
+	
+	/**
+	 * @return the literals left to be reduced in goal order
+	 */
+	public Goal getGoal() {
+		return goal;
 	}
 	
 	public List<Tuple<Literal, List<Closure>>> detectAlternatives() {
 		alternatives.clear();
-		literalIndexList.clear();
-		for(int i=0; i<goal.size(); ++i) {
-			Literal literal = goal.get(i);
-			String literalName = literal.getName() + "/" + literal.getArgs().size();
-			Tuple<Literal, List<Closure>> tuple = new Tuple<>();
-			tuple.setFirst(literal);
-			tuple.setSecond(new LinkedList<Closure>());
-			for(Closure c : program.get(literalName)) {
-				if(isValid(literal, c)) {
-					tuple.getSecond().add(c);
-				}
-				System.out.println();
+		alternativeNodes.clear();
+		agenda.beginDetection();
+		scheduleWoken();
+		long storeVersion = store.getVersion();
+		for(Goal.Node node = goal.getFirst(); node != null; node = node.getNext()) {
+			Literal literal = node.getLiteral();
+			//only check literals that are new or whose variables may have changed
+			AgendaEntry entry = agenda.lookup(literal, storeVersion);
+			if(entry == null) {
+				releaseCommits(agenda.getEntry(literal));
+				entry = check(node, storeVersion);
 			}
-			if(!tuple.getSecond().isEmpty()) {
-				alternatives.add(tuple);
-				literalIndexList.add(i);
+			if(entry.isRunnable()) {
+				alternatives.add(new Tuple<>(literal, entry.getClosures()));
+				alternativeNodes.add(node);
 			}
 		}
 		return alternatives;
 	}
 	
+	public Scheduler getScheduler() {
+		return scheduler;
+	}
+	
+	/**
+	 * hands the choice of the literal to be tried next to a scheduler, see
+	 * {@link #step(RuleSelector)}; all literals of the goal that are not
+	 * known to be suspended are scheduled
+	 * 
+	 * @param scheduler
+	 * 						the scheduler or null to forget the scheduled literals
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		if(this.scheduler != null) {
+			this.scheduler.clear();
+		}
+		this.scheduler = scheduler;
+		agenda.takeWoken();
+		if(scheduler == null) {
+			return;
+		}
+		scheduler.clear();
+		for(Goal.Node node = goal.getFirst(); node != null; node = node.getNext()) {
+			AgendaEntry entry = agenda.getEntry(node.getLiteral());
+			if(entry == null || entry.isRunnable() || entry.isWoken()) {
+				scheduler.schedule(node);
+			}
+		}
+	}
+	
+	/**
+	 * performs a single reduction step driven by the scheduler: the next
+	 * scheduled literal is checked on its own and reduced by the rule chosen
+	 * by the given selector; a literal without applicable rule is suspended
+	 * and only scheduled again when it is woken. In contrast to
+	 * {@link #detectAlternatives()}, a step never visits the whole goal.
+	 * 
+	 * @return true if a literal has been reduced, false if no literal is
+	 * 			left to be tried, i.e. the goal is empty or all of its
+	 * 			literals are suspended
+	 */
+	public boolean step(RuleSelector ruleSelector) {
+		if(scheduler == null) {
+			throw new IllegalStateException("no scheduler set");
+		}
+		while(true) {
+			scheduleWoken();
+			Goal.Node node = scheduler.next();
+			if(node == null) {
+				return false;
+			}
+			if(!node.isRemoved() && tryReduce(node, ruleSelector)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * reduces the literal of a goal node by the rule chosen by the given
+	 * selector if any rule is applicable; the literal is only checked if
+	 * its agenda entry is missing or stale
+	 * 
+	 * @return true if the literal has been reduced, false if it is suspended
+	 */
+	boolean tryReduce(Goal.Node node, RuleSelector ruleSelector) {
+		return tryReduce(node, ruleSelector, store.getVersion(), null);
+	}
+	
+	/**
+	 * like {@link #tryReduce(Goal.Node, RuleSelector)}, but a check result
+	 * of an older store version is kept as long as the store has only been
+	 * told about variables independent of those the check read
+	 * 
+	 * @param sinceVersion
+	 * 						the store version the told variables are collected since
+	 * @param toldVariables
+	 * 						the integer variables told about since that version,
+	 * 						receives those told by the reduction; null if the
+	 * 						check has to be of the current store version
+	 */
+	boolean tryReduce(Goal.Node node, RuleSelector ruleSelector, long sinceVersion,
+			List<IntegerVariable> toldVariables) {
+		Literal literal = node.getLiteral();
+		AgendaEntry entry = toldVariables == null
+				? agenda.lookup(literal, store.getVersion())
+				: agenda.lookup(literal, sinceVersion, toldVariables, store);
+		if(entry == null) {
+			releaseCommits(agenda.getEntry(literal));
+			entry = check(node, store.getVersion());
+		}
+		if(!entry.isRunnable()) {
+			return false;
+		}
+		int ruleIndex = ruleSelector.select(new Tuple<>(literal, entry.getClosures()));
+		if(ruleIndex < 0 || ruleIndex >= entry.getClosures().size()) {
+			throw new IllegalStateException("rule selector returned no valid alternative");
+		}
+		reduce(node, entry.getClosures().get(ruleIndex), ruleIndex, toldVariables);
+		return true;
+	}
+	
+	/**
+	 * checks a literal without touching the agenda or the frames of this
+	 * interpreter, so that several literals can be checked at the same time
+	 * as long as none is reduced meanwhile
+	 * 
+	 * @param frames
+	 * 						the pool the frames of the check are taken from
+	 * @return the valid closures and their commits, to be recorded by
+	 * 			{@link #record(Goal.Node, Tuple, long)}
+	 */
+	Tuple<List<Closure>, List<Commit>> speculate(Literal literal, FramePool frames) {
+		List<Closure> candidates = program.getClauseIndex(literal).getCandidates(literal, store);
+		return checkClosures(literal, candidates, frames);
+	}
+	
+	/**
+	 * records the result of a check made by {@link #speculate(Literal, FramePool)}
+	 * in the agenda, replacing the previous entry of the literal
+	 */
+	AgendaEntry record(Goal.Node node, Tuple<List<Closure>, List<Commit>> result, long storeVersion) {
+		releaseCommits(agenda.getEntry(node.getLiteral()));
+		return agenda.update(node, result.getFirst(), result.getSecond(), storeVersion);
+	}
+	
+	/**
+	 * @return true if the literal of a goal node has been checked and no
+	 * 			variable the check read has been bound or told about since,
+	 * 			see {@link #tryReduce(Goal.Node, RuleSelector, long, List)}
+	 */
+	boolean isChecked(Goal.Node node, long sinceVersion, List<IntegerVariable> toldVariables) {
+		AgendaEntry entry = agenda.getEntry(node.getLiteral());
+		return entry != null && !entry.isStale(sinceVersion, toldVariables, store);
+	}
+	
+	long getStoreVersion() {
+		return store.getVersion();
+	}
+	
+	/**
+	 * schedules the literals woken since the last call; without a scheduler
+	 * they are found by the next detection anyway
+	 */
+	private void scheduleWoken() {
+		List<AgendaEntry> woken = agenda.takeWoken();
+		if(scheduler != null) {
+			for(AgendaEntry entry : woken) {
+				scheduler.schedule(entry.getNode());
+			}
+		}
+	}
+	
+	/**
+	 * checks all candidate closures against the literal of a goal node
+	 */
+	private AgendaEntry check(Goal.Node node, long storeVersion) {
+		Literal literal = node.getLiteral();
+		List<Closure> candidates = program.getClauseIndex(literal).getCandidates(literal, store);
+		return findValidClosures(node, candidates, storeVersion);
+	}
+	
 	public int selectLiteral(LiteralSelector selector) {
 		int index = selector.select(alternatives);
 		selection.setFirst(index);
@@ -96,94 +358,522 @@ public final class Interpreter {
 		//apply selection
 		int literalIndex = selection.getFirst();
 		int ruleIndex = selection.getSecond();
-		Tuple<Literal, List<Closure>> tuple = alternatives.get(literalIndex);
-		Literal literal = tuple.getFirst();
-		Closure closure = tuple.getSecond().get(ruleIndex);
-		Environment environment = closure.getEnvironment();
-		ARule rule = closure.getRule();
+		Closure closure = alternatives.get(literalIndex).getSecond().get(ruleIndex);
+		reduce(alternativeNodes.get(literalIndex), closure, ruleIndex, null);
+	}
+	
+	/**
+	 * reduces a set of independent runnable literals found by the last
+	 * detection at the same time; the rule of each literal is chosen by the
+	 * given selector
+	 * 
+	 * Literals are taken in the order of the alternatives as long as their
+	 * footprints are disjoint from the footprints of all literals taken
+	 * before. Only literals whose closure can be committed from the check
+	 * are reduced in parallel, and their numeric tells must be independent
+	 * according to the store, e.g. fall into different components of a
+	 * {@link PartitionedChocoStore}. A literal that
+	 * has to be evaluated again is reduced on its own.
+	 * 
+	 * Trace listeners are called from the threads of the pool, see
+	 * {@link TraceListener}.
+	 * 
+	 * @return the number of reduced literals, at least one
+	 */
+	public int interpretParallel(RuleSelector ruleSelector, ForkJoinPool pool) {
+		List<Goal.Node> nodes = new ArrayList<>();
+		List<Closure> closures = new ArrayList<>();
+		List<Integer> ruleIndices = new ArrayList<>();
+		List<Commit> commits = new ArrayList<>();
+		Footprint footprint = new Footprint();
+		List<IntegerVariable> toldVariables = new ArrayList<>();
+		for(int i=0; i<alternatives.size(); ++i) {
+			Tuple<Literal, List<Closure>> tuple = alternatives.get(i);
+			Literal literal = tuple.getFirst();
+			Footprint own = agenda.getEntry(literal).getFootprint();
+			if(own.intersects(footprint)) {
+				continue;
+			}
+			int ruleIndex = ruleSelector.select(tuple);
+			if(ruleIndex < 0 || ruleIndex >= tuple.getSecond().size()) {
+				throw new IllegalStateException("rule selector returned no valid alternative");
+			}
+			Closure closure = tuple.getSecond().get(ruleIndex);
+			Commit commit = agenda.getEntry(literal).getCommit(ruleIndex);
+			if(commit == null) {
+				if(nodes.isEmpty()) {
+					reduce(alternativeNodes.get(i), closure, ruleIndex, null);
+					return 1;
+				}
+				continue;
+			}
+			if(!store.isIndependent(toldVariables, commit.getVariables())) {
+				continue;
+			}
+			toldVariables.addAll(commit.getVariables());
+			footprint.addAll(own);
+			nodes.add(alternativeNodes.get(i));
+			closures.add(closure);
+			ruleIndices.add(ruleIndex);
+			commits.add(commit);
+		}
+		if(nodes.isEmpty()) {
+			throw new IllegalStateException("no runnable literal");
+		} else if(nodes.size() == 1) {
+			reduce(nodes.get(0), closures.get(0), ruleIndices.get(0), null);
+			return 1;
+		}
 		
-		//refresh environment
-		//System.out.println("\n(before reset): " + environment);
-		environment.reset();
-		//System.out.println("(after reset) : " + environment);
+		List<Callable<List<Literal>>> reductions = new ArrayList<>(nodes.size());
+		for(int i=0; i<nodes.size(); ++i) {
+			final Literal literal = nodes.get(i).getLiteral();
+			final Closure closure = closures.get(i);
+			final Commit commit = commits.get(i);
+			reductions.add(new Callable<List<Literal>>() {
+				
+				@Override
+				public List<Literal> call() {
+					return applyCommit(literal, closure, commit);
+				}
+			});
+		}
+		List<Future<List<Literal>>> bodies = pool.invokeAll(reductions);
+		
+		//the goal, the agenda and the frames are only touched by this thread
+		for(int i=0; i<nodes.size(); ++i) {
+			Goal.Node node = nodes.get(i);
+			replace(node, getResult(bodies.get(i)));
+			releaseCommits(agenda.getEntry(node.getLiteral()));
+			agenda.remove(node.getLiteral());
+		}
+		agenda.wakeIntVariables(toldVariables, store);
+		reduced(nodes.size());
+		return nodes.size();
+	}
+	
+	/**
+	 * @return the result of a task that has completed, rethrowing its exception
+	 */
+	static <T> T getResult(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for a parallel task", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+	
+	/**
+	 * reduces the literal of a goal node by the closure at the given index
+	 * of its agenda entry
+	 * 
+	 * @param toldVariables
+	 * 						receives the integer variables told about, may be null
+	 */
+	private void reduce(Goal.Node node, Closure closure, int ruleIndex, List<IntegerVariable> toldVariables) {
+		Literal literal = node.getLiteral();
+		
+		//continue from the state the closure has been checked in
+		Commit commit = agenda.getEntry(literal).getCommit(ruleIndex);
+		if(commit != null) {
+			commit(literal, closure, commit, node);
+			if(toldVariables != null) {
+				toldVariables.addAll(commit.getVariables());
+			}
+		} else {
+			List<IntegerVariable> told = evaluate(literal, closure, node);
+			if(toldVariables != null) {
+				toldVariables.addAll(told);
+			}
+		}
+		releaseCommits(agenda.getEntry(literal));
+		agenda.remove(literal);
+		reduced(1);
+	}
+	
+	/**
+	 * reduces a literal by a closure, evaluating its ask and tell on a new frame
+	 * 
+	 * @return the integer variables told about
+	 */
+	private List<IntegerVariable> evaluate(Literal literal, Closure closure, Goal.Node node) {
+		Environment environment = frames.acquire(closure.getLayout());
+		RuleCode code = closure.getCode();
 		
 		//bind head variables from literal
-		bindParameters(literal, closure, true);
+		bindParameters(literal, environment, true);
 		
-		//evaluate ask
-		System.out.println("evaluating ask... ");
-		rule.apply(new AskEvaluator(environment, store));
+		//evaluate ask, only its list patterns bind variables
+		trace.reducing(literal, closure, Phase.ASK);
+		executor.ask(code, environment, null);
 		
-		//evaluate tell
-		System.out.println("evaluating tell... ");
-		rule.apply(new TellEvaluator(environment, store));
+		//evaluate tell, waking literals suspended on constrained variables
+		trace.reducing(literal, closure, Phase.TELL);
+		List<IntegerVariable> toldVariables = new ArrayList<>();
+		executor.tell(code, environment, false, toldVariables);
+		agenda.wakeIntVariables(toldVariables, store);
 		
 		//evaluate body
-		System.out.println("evaluating body... ");
-		rule.apply(new BodyEvaluator(environment, goal, literalIndexList.get(literalIndex)));
+		trace.reducing(literal, closure, Phase.BODY);
+		spawn(code, environment, node);
+		frames.release(environment);
+		return toldVariables;
+	}
+	
+	/**
+	 * reduces a literal by a closure without evaluating its ask and tell again:
+	 * the bindings of the check are kept and the checked numeric tell-constraints
+	 * are added to the store as they are
+	 */
+	private void commit(Literal literal, Closure closure, Commit commit, Goal.Node node) {
+		//wake literals suspended on constrained variables
+		List<Literal> body = applyCommit(literal, closure, commit);
+		agenda.wakeIntVariables(commit.getVariables(), store);
+		replace(node, body);
+	}
+	
+	/**
+	 * the part of a commit that only touches the data reachable from the
+	 * literal and the store, see {@link #interpretParallel(RuleSelector, ForkJoinPool)}
+	 * 
+	 * @return the literals of the body
+	 */
+	private List<Literal> applyCommit(Literal literal, Closure closure, Commit commit) {
+		Environment environment = commit.getEnvironment();
+		RuleCode code = closure.getCode();
+		
+		//hand the values initialized during the check over to the literal
+		bindCommittedParameters(literal, environment);
+		
+		//tell the checked constraints
+		trace.reducing(literal, closure, Phase.TELL);
+		store.commit(commit.getConstraints());
+		executor.tell(code, environment, true, null);
+		
+		//evaluate body
+		trace.reducing(literal, closure, Phase.BODY);
+		List<Literal> literals = new ArrayList<>(code.getBodySize());
+		CodeExecutor.spawn(code, environment, literals);
+		return literals;
+	}
+	
+	/**
+	 * replaces the reduced literal by the literals of the body
+	 */
+	private void spawn(RuleCode code, Environment environment, Goal.Node node) {
+		List<Literal> literals = new ArrayList<>(code.getBodySize());
+		CodeExecutor.spawn(code, environment, literals);
+		replace(node, literals);
+	}
+	
+	/**
+	 * replaces the literal of a goal node by the given literals, which are
+	 * scheduled if a scheduler is set
+	 */
+	private void replace(Goal.Node node, List<Literal> literals) {
+		List<Goal.Node> nodes = goal.replace(node, literals);
+		if(scheduler != null) {
+			for(Goal.Node n : nodes) {
+				scheduler.schedule(n);
+			}
+		}
+	}
+	
+	/**
+	 * returns the frames of all commits of an agenda entry that is replaced or removed
+	 */
+	private void releaseCommits(AgendaEntry entry) {
+		if(entry == null) {
+			return;
+		}
+		for(int i=0; i<entry.getClosures().size(); ++i) {
+			Commit commit = entry.getCommit(i);
+			if(commit != null) {
+				frames.release(commit.getEnvironment());
+			}
+		}
+	}
+	
+	public Agenda getAgenda() {
+		return agenda;
+	}
+	
+	/**
+	 * collects the store automatically, see {@link #collectGarbage()}
+	 * 
+	 * @param interval
+	 * 						collect after this number of reductions, 0 to not count reductions
+	 * @param threshold
+	 * 						collect after this number of tells changing the store, 0 to
+	 * 						not count tells
+	 */
+	public void setGarbageCollection(int interval, int threshold) {
+		this.collectionInterval = interval;
+		this.collectionThreshold = threshold;
+	}
+	
+	/**
+	 * restricts the values of the integer variables created from now on,
+	 * see {@link CodeExecutor#setDomain(int, int)}
+	 */
+	public void setDomain(int lower, int upper) {
+		executor.setDomain(lower, upper);
+	}
+	
+	/**
+	 * drops the constraints and integer variables of the store that can no
+	 * longer be reached from the goal or from the arguments of the initial
+	 * goal, as far as the store is able to tell them apart
+	 * 
+	 * @return what has been dropped
+	 */
+	public Garbage collectGarbage() {
+		Garbage garbage = store.collect(getReachableVariables());
+		collected = collected.plus(garbage);
+		reductionsSinceCollection = 0;
+		versionAtCollection = store.getVersion();
+		trace.storeCollected(garbage);
+		return garbage;
+	}
+	
+	/**
+	 * @return everything dropped by collections so far
+	 */
+	public Garbage getCollectedGarbage() {
+		return collected;
+	}
+	
+	/**
+	 * @return the number of asks the given tier of the store has decided so far
+	 */
+	public long getAskCount(AskTier tier) {
+		return store.getAskCount(tier);
+	}
+	
+	/**
+	 * counts reductions and tells, collecting the store if any limit is reached
+	 */
+	private void reduced(int count) {
+		reductionsSinceCollection += count;
+		if(collectionInterval > 0 && reductionsSinceCollection >= collectionInterval
+				|| collectionThreshold > 0 && store.getVersion() - versionAtCollection >= collectionThreshold) {
+			collectGarbage();
+		}
+	}
+	
+	private Set<IntegerVariable> getReachableVariables() {
+		Set<IntegerVariable> variables = new HashSet<>();
+		Set<ListVariable> lists = Collections.newSetFromMap(new IdentityHashMap<ListVariable, Boolean>());
+		for(Literal literal : initialGoal) {
+			for(Value arg : literal.getArgs()) {
+				addReachable(arg, variables, lists);
+			}
+		}
+		for(Literal literal : goal) {
+			for(Value arg : literal.getArgs()) {
+				addReachable(arg, variables, lists);
+			}
+		}
+		return variables;
+	}
+	
+	/**
+	 * @param lists
+	 * 						the lists visited so far, shared tails are only visited once
+	 */
+	private static void addReachable(Value value, Set<IntegerVariable> variables, Set<ListVariable> lists) {
+		if(value.isIntVar()) {
+			variables.add(value.getIntVar());
+		} else if(value.isListVar()) {
+			ListVariable list = value.getListVar();
+			while(list.isCons() && lists.add(list)) {
+				//numbers stored compactly hold no variables
+				int count = list.getIntCount();
+				if(count == 0) {
+					addReachable(list.getHead(), variables, lists);
+				}
+				Value tail = count > 0 ? list.dropInts(count) : list.getTail();
+				if(!tail.isListVar()) {
+					addReachable(tail, variables, lists);
+					return;
+				}
+				list = tail.getListVar();
+			}
+		}
 	}
 
-	private boolean isValid(Literal literal, Closure closure) {
-		Environment environment = closure.getEnvironment();
+	/**
+	 * checks all given closures against the literal of a goal node; the guards of all closures
+	 * are collected first and then decided by the store in a single call
+	 * 
+	 * @return the agenda entry recording the valid closures
+	 */
+	private AgendaEntry findValidClosures(Goal.Node node, List<Closure> closures, long storeVersion) {
+		Tuple<List<Closure>, List<Commit>> result = checkClosures(node.getLiteral(), closures, frames);
+		return agenda.update(node, result.getFirst(), result.getSecond(), storeVersion);
+	}
+	
+	/**
+	 * @param frames
+	 * 						the pool the frames of the check are taken from and
+	 * 						released to
+	 * @return the valid closures and their commits
+	 */
+	private Tuple<List<Closure>, List<Commit>> checkClosures(Literal literal, List<Closure> closures, FramePool frames) {
+		List<Closure> candidates = new ArrayList<>();
+		List<Environment> environments = new ArrayList<>();
+		List<List<Constraint>> guards = new ArrayList<>();
+		for(Closure c : closures) {
+			Environment environment = frames.acquire(c.getLayout());
+			List<Constraint> guard = checkAsk(literal, c, environment);
+			if(guard != null) {
+				candidates.add(c);
+				environments.add(environment);
+				guards.add(guard);
+			} else {
+				frames.release(environment);
+			}
+		}
+		
+		List<Closure> validClosures = new LinkedList<>();
+		List<Commit> commits = new ArrayList<>();
+		if(!candidates.isEmpty()) {
+			//local values of an argument passed twice cannot be handed over to it
+			boolean isCommittable = !hasSharedUnboundArgs(literal);
+			boolean[] entailed = store.askEach(guards);
+			for(int i=0; i<candidates.size(); ++i) {
+				Closure c = candidates.get(i);
+				Environment environment = environments.get(i);
+				Commit commit = entailed[i] ? checkTell(c, environment) : null;
+				if(commit != null) {
+					validClosures.add(c);
+					commits.add(isCommittable ? commit : null);
+				}
+				if(commit == null || !isCommittable) {
+					frames.release(environment);
+				}
+				trace.closureChecked(c, commit != null);
+			}
+		}
+		return new Tuple<>(validClosures, commits);
+	}
+
+	/**
+	 * binds the parameters of the given closure and evaluates the non-numeric
+	 * part of its ask-constraints
+	 * 
+	 * @return the numeric ask-constraints left to be asked or null if the closure
+	 * 			does not match the literal
+	 */
+	private List<Constraint> checkAsk(Literal literal, Closure closure, Environment environment) {
 		ARule rule = closure.getRule();
 		
-		PrettyPrinter printer = new PrettyPrinter();
-		rule.apply(printer);
-		System.out.println("checking " + printer.getString());
+		trace.checkingClosure(literal, closure);
 		
 		//check name
 		AHead head = (AHead)rule.getHead();
 		if(!literal.getName().equals(head.getName().getText())) {
-			return false;
+			return null;
 		}
 		
 		//check arity
 		if(literal.getArgs().size() != head.getParams().size()) {
-			return false;
+			return null;
 		}
 		
-		//refresh environment
-		environment.reset();
-		
 		//bind head variables from literal
-		bindParameters(literal, closure, false);
+		bindParameters(literal, environment, false);
 		
 		//evaluate ask
-		System.out.print("checking ask... ");
-		AskEvaluator askEvaluator = new AskEvaluator(environment, store);
-		rule.apply(askEvaluator);
-		if(!askEvaluator.isSatisfied()) {
-			System.out.println("failed");
-			return false;
-		}
-		System.out.println("ok");
-		
+		List<Constraint> guard = new ArrayList<>();
+		boolean isSatisfied = executor.ask(closure.getCode(), environment, guard);
+		trace.askChecked(closure, isSatisfied);
+		return isSatisfied ? guard : null;
+	}
+	
+	/**
+	 * evaluates the tell-constraints of a closure whose ask-constraints are entailed
+	 * 
+	 * @return the state to commit the closure from or null if the tell fails
+	 */
+	private Commit checkTell(Closure closure, Environment environment) {
 		//evaluate tell
-		System.out.print("checking tell... ");
-		TellCheckEvaluator tellCheckEvaluator = new TellCheckEvaluator(environment, store);
-		rule.apply(tellCheckEvaluator);
-		if(!tellCheckEvaluator.isSatisfied()) {
-			System.out.println("failed");
-			return false;
+		List<Constraint> constraints = new ArrayList<>();
+		List<IntegerVariable> variables = new ArrayList<>();
+		List<ListVariable> lists = new ArrayList<>();
+		boolean isSatisfied = executor.checkTell(closure.getCode(), environment, constraints, variables, lists);
+		trace.tellChecked(closure, isSatisfied);
+		return isSatisfied ? new Commit(environment, constraints, variables, lists) : null;
+	}
+	
+	/**
+	 * @return true if the same uninitialized value, or values told equal, are
+	 * 			passed for several parameters
+	 */
+	private static boolean hasSharedUnboundArgs(Literal literal) {
+		List<Value> args = literal.getArgs();
+		for(int i=0; i<args.size(); ++i) {
+			if(!args.get(i).isInit()) {
+				for(int j=i+1; j<args.size(); ++j) {
+					if(args.get(j).getRepresentative() == args.get(i).getRepresentative()) {
+						return true;
+					}
+				}
+			}
 		}
-		System.out.println("ok");
-		return true;
+		return false;
 	}
 	
-	private void bindParameters(Literal literal, Closure closure, boolean persistent) {
-		Environment environment = closure.getEnvironment();
-		AHead head = (AHead)closure.getRule().getHead();
-		Iterator<TIdent> params = head.getParams().iterator();
-		//System.out.println();
-		for(Value arg : literal.getArgs()) {
-			String paramName = params.next().getText();
+	private void bindParameters(Literal literal, Environment environment, boolean persistent) {
+		List<Value> args = literal.getArgs();
+		//parameters occupy the first slots of a frame
+		for(int i=0; i<args.size(); ++i) {
+			Value arg = args.get(i);
 			if(arg.isInit() || persistent) {
-				System.out.println(paramName + " ---> " + getResultString(arg));
-				environment.put(paramName, arg);
+				environment.put(i, arg);
 			} else {
-				System.out.println(paramName + " ~~~> " + arg.getName());
-				environment.put(paramName, new Value(arg.getName()));
+				environment.put(i, new Value(arg.getName()));
+			}
+			trace.parameterBound(environment.getLayout().getName(i), arg, persistent);
+		}
+	}
+	
+	/**
+	 * binds the parameters of a committed closure to the arguments of the literal;
+	 * an argument that was uninitialized during the check takes over the
+	 * initialization of the local value that stood in for it; if the local
+	 * value has only been told equal to other uninitialized values, the
+	 * argument joins them. A local value the check left alone joins the
+	 * argument, which may have been bound since.
+	 */
+	private void bindCommittedParameters(Literal literal, Environment environment) {
+		List<Value> args = literal.getArgs();
+		for(int i=0; i<args.size(); ++i) {
+			Value arg = args.get(i);
+			Value local = environment.get(i);
+			if(local != arg) {
+				if(local.isInt()) {
+					arg.init(local.getInt());
+				} else if(local.isIntVar()) {
+					arg.init(local.getIntVar());
+				} else if(local.isListVar()) {
+					arg.init(local.getListVar());
+				} else if(local.getRepresentative() == local) {
+					local.aliasTo(arg);
+				} else {
+					arg.aliasTo(local);
+				}
+				environment.put(i, arg);
 			}
+			trace.parameterBound(environment.getLayout().getName(i), arg, true);
 		}
 	}
 	
@@ -210,11 +900,25 @@ public final class Interpreter {
 	}
 
 	private String getResultString(ListVariable list) {
-		if(list.isUnbound()) {
-			return "?";
-		} else if(list.isEmpty()) {
-			return "[]";
+		StringBuilder s = new StringBuilder();
+		while(list.isCons()) {
+			int count = list.getIntCount();
+			Value tail;
+			if(count > 0) {
+				//numbers stored compactly are printed without creating list cells
+				for(int i=0; i<count; ++i) {
+					s.append(list.getInt(i)).append(" : ");
+				}
+				tail = list.dropInts(count);
+			} else {
+				s.append(getResultString(list.getHead())).append(" : ");
+				tail = list.getTail();
+			}
+			if(!tail.isListVar() || tail.getListVar().isUnbound()) {
+				return s.append(getResultString(tail)).toString();
+			}
+			list = tail.getListVar();
 		}
-		return getResultString(list.getHead()) + " : " + getResultString(list.getTail());
+		return s.append(list.isUnbound() ? "?" : "[]").toString();
 	}
 }
\ No newline at end of file
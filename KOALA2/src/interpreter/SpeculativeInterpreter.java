@@ -0,0 +1,144 @@
+package interpreter;
+
+import interpreter.agenda.Agenda;
+import interpreter.agenda.AgendaEntry;
+import interpreter.agenda.Commit;
+import interpreter.agenda.Goal;
+import interpreter.data.Closure;
+import interpreter.data.FramePool;
+import interpreter.data.Literal;
+import interpreter.strat.RuleSelector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import util.Tuple;
+
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * Runs an interpreter optimistically: every step checks all goal literals
+ * whose check result is missing or stale at the same time, without knowing
+ * in advance which of them depend on each other, and then reduces every
+ * literal found runnable one after the other.
+ *
+ * The checks run while nothing is reduced, so all of them see the same
+ * state of the store. A check does not bind any variable of the goal: the
+ * bindings and constraints of a rule are staged in the commit of the check
+ * and only published when the literal is reduced.
+ *
+ * Before a literal is reduced, its check is validated against the reductions
+ * made earlier in the same step, which write the values and lists they bind
+ * and the integer variables they tell about. Asks only succeed on bound
+ * values and entailed constraints, so a runnable check conflicts only if
+ * its own writes do: a value or list its commit binds has been bound
+ * meanwhile, or its numeric tell-constraints constrain variables of the
+ * literal the store cannot tell independent of the told ones, see
+ * {@link interpreter.agenda.AgendaEntry#isStale(long, java.util.Collection, interpreter.data.ChocoStore)}.
+ * A conflicting check is made again, this time sequentially; all other
+ * checks are committed as they are.
+ */
+public final class SpeculativeInterpreter {
+
+	private final Interpreter interpreter;
+	private final ForkJoinPool pool;
+
+	private long checkCount;
+	private long conflictCount;
+
+	/**
+	 * @param pool
+	 * 						the pool the checks are run on
+	 */
+	public SpeculativeInterpreter(Interpreter interpreter, ForkJoinPool pool) {
+		this.interpreter = interpreter;
+		this.pool = pool;
+		this.checkCount = 0;
+		this.conflictCount = 0;
+	}
+
+	public Interpreter getInterpreter() {
+		return interpreter;
+	}
+
+	/**
+	 * checks the goal literals in parallel and reduces all literals that are
+	 * runnable, the rule of each literal is chosen by the given selector
+	 *
+	 * Trace listeners may be called from the threads of the pool.
+	 *
+	 * @return the number of reduced literals, 0 if no literal is runnable
+	 */
+	public int step(RuleSelector ruleSelector) {
+		Agenda agenda = interpreter.getAgenda();
+		long storeVersion = interpreter.getStoreVersion();
+		//suspended literals that have been woken are found by their stale entries
+		agenda.takeWoken();
+
+		List<Goal.Node> nodes = new ArrayList<>();
+		List<Goal.Node> unchecked = new ArrayList<>();
+		for(Goal.Node node = interpreter.getGoal().getFirst(); node != null; node = node.getNext()) {
+			AgendaEntry entry = agenda.lookup(node.getLiteral(), storeVersion);
+			if(entry == null) {
+				unchecked.add(node);
+				nodes.add(node);
+			} else if(entry.isRunnable()) {
+				nodes.add(node);
+			}
+		}
+
+		//speculate
+		List<Callable<Tuple<List<Closure>, List<Commit>>>> checks = new ArrayList<>(unchecked.size());
+		for(Goal.Node node : unchecked) {
+			final Literal literal = node.getLiteral();
+			checks.add(new Callable<Tuple<List<Closure>, List<Commit>>>() {
+
+				@Override
+				public Tuple<List<Closure>, List<Commit>> call() {
+					return interpreter.speculate(literal, new FramePool());
+				}
+			});
+		}
+		List<Future<Tuple<List<Closure>, List<Commit>>>> results = pool.invokeAll(checks);
+		for(int i=0; i<unchecked.size(); ++i) {
+			interpreter.record(unchecked.get(i), Interpreter.getResult(results.get(i)), storeVersion);
+		}
+		checkCount += unchecked.size();
+
+		//validate and commit in goal order
+		int reduced = 0;
+		List<IntegerVariable> toldVariables = new ArrayList<>();
+		for(Goal.Node node : nodes) {
+			if(!interpreter.isChecked(node, storeVersion, toldVariables)) {
+				++conflictCount;
+			}
+			if(interpreter.tryReduce(node, ruleSelector, storeVersion, toldVariables)) {
+				++reduced;
+			}
+		}
+		return reduced;
+	}
+
+	/**
+	 * @return the number of literals checked in parallel
+	 */
+	public long getCheckCount() {
+		return checkCount;
+	}
+
+	/**
+	 * @return the number of checks that had to be made again because an
+	 * 			earlier reduction of the same step changed their variables
+	 */
+	public long getConflictCount() {
+		return conflictCount;
+	}
+
+	@Override
+	public String toString() {
+		return "SpeculativeInterpreter [checks=" + checkCount + ", conflicts=" + conflictCount + "]";
+	}
+}
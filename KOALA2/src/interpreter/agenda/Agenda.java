@@ -0,0 +1,219 @@
+package interpreter.agenda;
+
+import interpreter.data.ChocoStore;
+import interpreter.data.Closure;
+import interpreter.data.Literal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * Keeps track of the check results of all goal literals between two steps
+ * of the interpreter, so that only new literals and literals whose variables
+ * may have changed need to be checked again.
+ *
+ * Literals without any applicable rule are suspended: they are parked on the
+ * values, lists and integer variables reachable from their arguments and are
+ * not checked again before one of these gets bound or constrained.
+ */
+public final class Agenda {
+
+	/**
+	 * goal literals and their most recent check result,
+	 * literals are distinguished by identity
+	 */
+	private final Map<Literal, AgendaEntry> entries;
+
+	/**
+	 * suspended entries waiting for a change of an integer variable
+	 */
+	private final Map<IntegerVariable, List<AgendaEntry>> intWaiters;
+
+	/**
+	 * suspended entries woken since the last call of {@link #takeWoken()}
+	 */
+	private final List<AgendaEntry> woken;
+
+	/**
+	 * number of literals checked and reused during the last detection
+	 */
+	private int checkedCount;
+	private int reusedCount;
+
+	public Agenda() {
+		this.entries = new IdentityHashMap<>();
+		this.intWaiters = new HashMap<>();
+		this.woken = new ArrayList<>();
+		this.checkedCount = 0;
+		this.reusedCount = 0;
+	}
+
+	/**
+	 * @return the entry of the given literal if it is still valid for the
+	 * 			given store version, null if the literal needs to be checked
+	 */
+	public AgendaEntry lookup(Literal literal, long storeVersion) {
+		AgendaEntry entry = entries.get(literal);
+		if(entry == null) {
+			return null;
+		}
+		//suspended entries only need to be checked if they have been woken
+		if(entry.isRunnable() ? entry.isStale(storeVersion) : entry.isWoken()) {
+			return null;
+		}
+		++reusedCount;
+		return entry;
+	}
+
+	/**
+	 * @return the entry of the given literal if it is still valid after the
+	 * 			store has been told about the given variables since the given
+	 * 			version, null if the literal needs to be checked, see
+	 * 			{@link AgendaEntry#isStale(long, Collection, ChocoStore)}
+	 */
+	public AgendaEntry lookup(Literal literal, long sinceVersion, Collection<IntegerVariable> toldVariables,
+			ChocoStore store) {
+		AgendaEntry entry = entries.get(literal);
+		if(entry == null) {
+			return null;
+		}
+		if(entry.isRunnable() ? entry.isStale(sinceVersion, toldVariables, store) : entry.isWoken()) {
+			return null;
+		}
+		++reusedCount;
+		return entry;
+	}
+
+	/**
+	 * records the result of checking the literal of the given goal node
+	 * and suspends it if no rule is applicable
+	 */
+	public AgendaEntry update(Goal.Node node, List<Closure> closures, List<Commit> commits, long storeVersion) {
+		AgendaEntry entry = new AgendaEntry(this, node, closures, commits, storeVersion);
+		entries.put(node.getLiteral(), entry);
+		++checkedCount;
+		if(!entry.isRunnable()) {
+			entry.suspend();
+			for(IntegerVariable var : entry.getIntVariables()) {
+				List<AgendaEntry> waiters = intWaiters.get(var);
+				if(waiters == null) {
+					waiters = new ArrayList<>();
+					intWaiters.put(var, waiters);
+				}
+				waiters.add(entry);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * @return the most recent check result of the given literal, regardless
+	 * 			of whether it is still valid
+	 */
+	public AgendaEntry getEntry(Literal literal) {
+		return entries.get(literal);
+	}
+
+	/**
+	 * forgets a literal that has been reduced
+	 */
+	public void remove(Literal literal) {
+		entries.remove(literal);
+	}
+
+	/**
+	 * wakes all literals suspended on an integer variable that is connected to
+	 * a told constraint in the store. A tell may decide a suspended ask through
+	 * other constraints without changing the bounds of any of its variables,
+	 * e.g. X =\= Y after telling X < Z and Z < Y, but only if the ask shares a
+	 * component of the constraint graph with the told constraint.
+	 *
+	 * @param toldVariables
+	 * 							variables of the constraints told since the last call
+	 * @param store
+	 * 							the store the constraints have been told to
+	 */
+	public void wakeIntVariables(Collection<IntegerVariable> toldVariables, ChocoStore store) {
+		if(toldVariables.isEmpty()) {
+			return;
+		}
+		Iterator<Map.Entry<IntegerVariable, List<AgendaEntry>>> it = intWaiters.entrySet().iterator();
+		while(it.hasNext()) {
+			Map.Entry<IntegerVariable, List<AgendaEntry>> e = it.next();
+			if(!store.isIndependent(toldVariables, Collections.singletonList(e.getKey()))) {
+				for(AgendaEntry entry : e.getValue()) {
+					entry.wake();
+				}
+				it.remove();
+			}
+		}
+	}
+
+	void woken(AgendaEntry entry) {
+		synchronized(woken) {
+			woken.add(entry);
+		}
+	}
+
+	/**
+	 * @return the entries woken since the last call that are still the
+	 * 			current entries of literals in the goal, each at most once
+	 */
+	public List<AgendaEntry> takeWoken() {
+		if(woken.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<AgendaEntry> result = new ArrayList<>(woken.size());
+		for(AgendaEntry entry : woken) {
+			//entries replaced by a newer check or of reduced literals are out of date
+			if(!entry.getNode().isRemoved() && entries.get(entry.getLiteral()) == entry) {
+				result.add(entry);
+			}
+		}
+		woken.clear();
+		return result;
+	}
+
+	/**
+	 * resets the counters of checked and reused literals
+	 */
+	public void beginDetection() {
+		checkedCount = 0;
+		reusedCount = 0;
+	}
+
+	public int getCheckedCount() {
+		return checkedCount;
+	}
+
+	public int getReusedCount() {
+		return reusedCount;
+	}
+
+	public int getRunnableCount() {
+		int n = 0;
+		for(AgendaEntry e : entries.values()) {
+			if(e.isRunnable()) {
+				++n;
+			}
+		}
+		return n;
+	}
+
+	public int getSuspendedCount() {
+		return entries.size() - getRunnableCount();
+	}
+
+	@Override
+	public String toString() {
+		return "Agenda [size=" + entries.size() + ", checked=" + checkedCount + ", reused=" + reusedCount + "]";
+	}
+}
@@ -0,0 +1,320 @@
+package interpreter.agenda;
+
+import interpreter.data.ChocoStore;
+import interpreter.data.Closure;
+import interpreter.data.ListVariable;
+import interpreter.data.Literal;
+import interpreter.data.Suspension;
+import interpreter.data.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * The cached result of checking a single goal literal against its rules,
+ * together with the variables the result depends on.
+ *
+ * A suspended entry is parked on these variables and only checked again
+ * once it has been woken by one of them.
+ */
+public final class AgendaEntry implements Suspension {
+
+	public enum Status {
+		RUNNABLE,
+		SUSPENDED
+	}
+
+	private final Agenda agenda;
+	
+	/**
+	 * the goal node of the literal
+	 */
+	private final Goal.Node node;
+
+	/**
+	 * the closures whose ask and tell were satisfied at the time of the check
+	 */
+	private final List<Closure> closures;
+
+	/**
+	 * the state each of the closures has been checked in,
+	 * null for closures that have to be evaluated again when committed
+	 */
+	private final List<Commit> commits;
+
+	/**
+	 * the store version the check was performed on
+	 */
+	private final long storeVersion;
+
+	/**
+	 * integer variables reachable from the arguments of the literal,
+	 * which make the check depend on the store content
+	 */
+	private final List<IntegerVariable> intVariables;
+
+	/**
+	 * uninitialized values reachable from the arguments of the literal
+	 */
+	private final List<Value> unboundValues;
+
+	/**
+	 * unbound lists reachable from the arguments of the literal
+	 */
+	private final List<ListVariable> unboundLists;
+
+	/**
+	 * the uninitialized arguments the commits initialize or tell equal to
+	 * other values, the unbound lists they bind and the integer variables
+	 * reachable from the arguments they constrain; null if the entry is
+	 * suspended or has a closure that is evaluated again when committed
+	 */
+	private final List<Value> writtenValues;
+	private final List<ListVariable> writtenLists;
+	private final List<IntegerVariable> writtenIntVariables;
+
+	/**
+	 * set once any variable this entry is suspended on changed
+	 */
+	private boolean isWoken;
+
+	AgendaEntry(Agenda agenda, Goal.Node node, List<Closure> closures, List<Commit> commits, long storeVersion) {
+		this.agenda = agenda;
+		this.node = node;
+		this.closures = closures;
+		this.commits = commits;
+		this.storeVersion = storeVersion;
+		this.intVariables = new ArrayList<>();
+		this.unboundValues = new ArrayList<>();
+		this.unboundLists = new ArrayList<>();
+		this.isWoken = false;
+		for(Value arg : node.getLiteral().getArgs()) {
+			watch(arg);
+		}
+		if(!closures.isEmpty() && !commits.contains(null)) {
+			this.writtenValues = new ArrayList<>();
+			this.writtenLists = new ArrayList<>();
+			this.writtenIntVariables = new ArrayList<>();
+			for(Commit commit : commits) {
+				addWrites(commit);
+			}
+		} else {
+			this.writtenValues = null;
+			this.writtenLists = null;
+			this.writtenIntVariables = null;
+		}
+	}
+
+	public Literal getLiteral() {
+		return node.getLiteral();
+	}
+
+	public Goal.Node getNode() {
+		return node;
+	}
+
+	/**
+	 * @return the variables reachable from the arguments of the literal that
+	 * 			are still unbound, valid as long as the entry is not stale
+	 */
+	public Footprint getFootprint() {
+		return new Footprint(unboundValues, unboundLists, intVariables);
+	}
+
+	public List<Closure> getClosures() {
+		return closures;
+	}
+
+	/**
+	 * @return the state the closure at the given index has been checked in
+	 * 			or null if it has to be evaluated again
+	 */
+	public Commit getCommit(int index) {
+		return commits.get(index);
+	}
+
+	public Status getStatus() {
+		return closures.isEmpty() ? Status.SUSPENDED : Status.RUNNABLE;
+	}
+
+	public boolean isRunnable() {
+		return !closures.isEmpty();
+	}
+
+	public boolean isWoken() {
+		return isWoken;
+	}
+
+	List<IntegerVariable> getIntVariables() {
+		return intVariables;
+	}
+
+	/**
+	 * may be called by several threads reducing literals in parallel
+	 */
+	@Override
+	public synchronized void wake() {
+		if(!isWoken) {
+			isWoken = true;
+			agenda.woken(this);
+		}
+	}
+
+	/**
+	 * parks this entry on all variables it depends on
+	 */
+	void suspend() {
+		for(Value v : unboundValues) {
+			v.suspend(this);
+		}
+		for(ListVariable l : unboundLists) {
+			l.suspend(this);
+		}
+	}
+
+	/**
+	 * a check result is stale if any variable it depends on may have changed since,
+	 * i.e. a watched value or list got bound or, for literals over integer variables,
+	 * the store content changed
+	 *
+	 * @param currentStoreVersion
+	 * 							the version of the store
+	 * @return true if the literal has to be checked again
+	 */
+	public boolean isStale(long currentStoreVersion) {
+		return !intVariables.isEmpty() && currentStoreVersion != storeVersion || isChanged();
+	}
+
+	/**
+	 * like {@link #isStale(long)}, but validates the check against what
+	 * happened since instead of the whole watch set: the store may have been
+	 * told about the given variables and variables reachable from the
+	 * arguments may have been bound.
+	 *
+	 * Asks only succeed on bound values and entailed constraints, which
+	 * stay so, thus a runnable closure only becomes invalid if a value or list
+	 * its commit writes has been bound or its numeric tell-constraints are no
+	 * longer known to be consistent, i.e. the store cannot tell the variables
+	 * of the literal they constrain independent of the told ones; the other
+	 * variables of the constraints have been created by the check. Entries
+	 * with a closure that is evaluated again and suspended entries depend on
+	 * all watched variables.
+	 *
+	 * @param sinceVersion
+	 * 							the store version the told variables are
+	 * 							collected since
+	 * @param toldVariables
+	 * 							the integer variables of all constraints told
+	 * 							since that version
+	 * @return true if the literal has to be checked again
+	 */
+	public boolean isStale(long sinceVersion, Collection<IntegerVariable> toldVariables, ChocoStore store) {
+		if(sinceVersion != storeVersion) {
+			return isStale(store.getVersion());
+		}
+		if(writtenValues == null) {
+			return isChanged() || !store.isIndependent(intVariables, toldVariables);
+		}
+		for(int i=0; i<writtenValues.size(); ++i) {
+			Value v = writtenValues.get(i);
+			if(v.isInit()) {
+				return true;
+			}
+			//values told equal since cannot take over two initializations
+			for(int j=0; j<i; ++j) {
+				if(writtenValues.get(j).getRepresentative() == v.getRepresentative()) {
+					return true;
+				}
+			}
+		}
+		for(ListVariable l : writtenLists) {
+			if(l.isBound()) {
+				return true;
+			}
+		}
+		return !store.isIndependent(writtenIntVariables, toldVariables);
+	}
+
+	/**
+	 * @return true if the entry has been woken or a watched value or list
+	 * 			got bound
+	 */
+	private boolean isChanged() {
+		if(isWoken) {
+			return true;
+		}
+		for(Value v : unboundValues) {
+			if(v.isInit()) {
+				return true;
+			}
+		}
+		for(ListVariable l : unboundLists) {
+			if(l.isBound()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * collects the arguments a commit hands an initialization or alias over
+	 * to, the lists it binds and the watched integer variables it constrains
+	 */
+	private void addWrites(Commit commit) {
+		List<Value> args = node.getLiteral().getArgs();
+		for(int i=0; i<args.size(); ++i) {
+			Value arg = args.get(i);
+			Value local = commit.getEnvironment().get(i);
+			if(local != arg && (local.isInit() || local.getRepresentative() != local)
+					&& !writtenValues.contains(arg)) {
+				writtenValues.add(arg);
+			}
+		}
+		writtenLists.addAll(commit.getLists());
+		for(IntegerVariable var : commit.getVariables()) {
+			if(intVariables.contains(var) && !writtenIntVariables.contains(var)) {
+				writtenIntVariables.add(var);
+			}
+		}
+	}
+
+	private void watch(Value value) {
+		if(!value.isInit()) {
+			//aliases share the representative, so footprints meet on it
+			unboundValues.add(value.getRepresentative());
+		} else if(value.isInt()) {
+			//constants never change
+		} else if(value.isIntVar()) {
+			intVariables.add(value.getIntVar());
+		} else if(value.isListVar()) {
+			watch(value.getListVar());
+		}
+	}
+
+	private void watch(ListVariable list) {
+		while(list.isCons()) {
+			//numbers stored compactly never change
+			int count = list.getIntCount();
+			if(count == 0) {
+				watch(list.getHead());
+			}
+			Value tail = count > 0 ? list.dropInts(count) : list.getTail();
+			if(!tail.isListVar()) {
+				watch(tail);
+				return;
+			}
+			list = tail.getListVar();
+		}
+		if(list.isUnbound()) {
+			unboundLists.add(list.getRepresentative());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AgendaEntry [literal=" + node.getLiteral() + ", status=" + getStatus() + "]";
+	}
+}
@@ -0,0 +1,68 @@
+package interpreter.agenda;
+
+import interpreter.data.Environment;
+import interpreter.data.ListVariable;
+
+import java.util.List;
+
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * The state a closure has been checked in against a literal. Committing the
+ * closure continues from this state instead of evaluating the ask and tell
+ * of its rule again.
+ */
+public final class Commit {
+
+	/**
+	 * the frame of the closure after the check, parameters bound to
+	 * uninitialized arguments still refer to local values
+	 */
+	private final Environment environment;
+
+	/**
+	 * the numeric tell-constraints, their conjunction has been checked to be
+	 * consistent with the store
+	 */
+	private final List<Constraint> constraints;
+
+	/**
+	 * the integer variables occurring in the numeric tell-constraints
+	 */
+	private final List<IntegerVariable> variables;
+
+	/**
+	 * the unbound lists reachable from the literal that the tell binds
+	 */
+	private final List<ListVariable> lists;
+
+	public Commit(Environment environment, List<Constraint> constraints, List<IntegerVariable> variables,
+			List<ListVariable> lists) {
+		this.environment = environment;
+		this.constraints = constraints;
+		this.variables = variables;
+		this.lists = lists;
+	}
+
+	public Environment getEnvironment() {
+		return environment;
+	}
+
+	public List<Constraint> getConstraints() {
+		return constraints;
+	}
+
+	public List<IntegerVariable> getVariables() {
+		return variables;
+	}
+
+	public List<ListVariable> getLists() {
+		return lists;
+	}
+
+	@Override
+	public String toString() {
+		return "Commit [environment=" + environment + ", constraints=" + constraints.size() + "]";
+	}
+}
@@ -0,0 +1,60 @@
+package interpreter.agenda;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * The variables a reduction may bind or constrain: the uninitialized
+ * values, unbound lists and integer variables reachable from the arguments
+ * of a literal, distinguished by identity. Bound lists and constants are
+ * only read by a reduction. Reductions of literals with disjoint footprints
+ * cannot observe each other's bindings and may run in any order, or at the
+ * same time.
+ *
+ * Integer variables only stand for themselves, constraints of the store
+ * relating them to other variables are not followed.
+ *
+ * @see AgendaEntry#getFootprint()
+ */
+public final class Footprint {
+
+	private final Set<Object> variables;
+
+	public Footprint() {
+		this.variables = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+	}
+
+	Footprint(Collection<?>... variables) {
+		this();
+		for(Collection<?> c : variables) {
+			this.variables.addAll(c);
+		}
+	}
+
+	public boolean intersects(Footprint other) {
+		//probe the larger set with the elements of the smaller one
+		Footprint small = variables.size() <= other.variables.size() ? this : other;
+		Footprint large = small == this ? other : this;
+		for(Object variable : small.variables) {
+			if(large.variables.contains(variable)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void addAll(Footprint other) {
+		variables.addAll(other.variables);
+	}
+
+	public int size() {
+		return variables.size();
+	}
+
+	@Override
+	public String toString() {
+		return "Footprint [size=" + variables.size() + "]";
+	}
+}
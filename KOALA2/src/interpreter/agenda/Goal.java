@@ -0,0 +1,206 @@
+package interpreter.agenda;
+
+import interpreter.data.Literal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The literals of a goal in order. Every literal is held by a node that
+ * serves as a stable handle until the literal is reduced: replacing a
+ * literal by the literals of a rule body takes constant time per literal,
+ * wherever it is located in the goal, and leaves the handles of all other
+ * literals valid.
+ */
+public final class Goal implements Iterable<Literal> {
+
+	public static final class Node {
+
+		private final Literal literal;
+		private Node previous;
+		private Node next;
+		private boolean isRemoved;
+
+		private Node(Literal literal) {
+			this.literal = literal;
+		}
+
+		public Literal getLiteral() {
+			return literal;
+		}
+
+		/**
+		 * @return the node following this one, null if this is the last
+		 * 			node or has been removed
+		 */
+		public Node getNext() {
+			return next;
+		}
+
+		/**
+		 * @return true if the literal of this node is no longer part of the goal
+		 */
+		public boolean isRemoved() {
+			return isRemoved;
+		}
+
+		@Override
+		public String toString() {
+			return "Node [" + literal + (isRemoved ? ", removed" : "") + "]";
+		}
+	}
+
+	private Node first;
+	private Node last;
+	private int size;
+
+	/**
+	 * creates an empty goal
+	 */
+	public Goal() {
+		this.first = null;
+		this.last = null;
+		this.size = 0;
+	}
+
+	public Goal(Collection<Literal> literals) {
+		this();
+		for(Literal literal : literals) {
+			add(literal);
+		}
+	}
+
+	/**
+	 * appends a literal to the goal
+	 *
+	 * @return the handle of the literal
+	 */
+	public Node add(Literal literal) {
+		return insertBefore(null, literal);
+	}
+
+	/**
+	 * replaces the literal of a node by the given literals, which take its
+	 * place in the given order; the node is removed
+	 *
+	 * @return the handles of the inserted literals in order
+	 */
+	public List<Node> replace(Node node, List<Literal> literals) {
+		checkLinked(node);
+		List<Node> nodes = new ArrayList<>(literals.size());
+		for(Literal literal : literals) {
+			nodes.add(insertBefore(node, literal));
+		}
+		remove(node);
+		return nodes;
+	}
+
+	/**
+	 * removes the literal of a node from the goal
+	 */
+	public void remove(Node node) {
+		checkLinked(node);
+		if(node.previous == null) {
+			first = node.next;
+		} else {
+			node.previous.next = node.next;
+		}
+		if(node.next == null) {
+			last = node.previous;
+		} else {
+			node.next.previous = node.previous;
+		}
+		node.previous = null;
+		node.next = null;
+		node.isRemoved = true;
+		--size;
+	}
+
+	/**
+	 * @return the node of the first literal, null if the goal is empty
+	 */
+	public Node getFirst() {
+		return first;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the literals of the goal in order; the iterator does not
+	 * 			support removal
+	 */
+	@Override
+	public Iterator<Literal> iterator() {
+		return new Iterator<Literal>() {
+
+			private Node node = first;
+
+			@Override
+			public boolean hasNext() {
+				return node != null;
+			}
+
+			@Override
+			public Literal next() {
+				if(node == null) {
+					throw new NoSuchElementException();
+				}
+				Literal literal = node.literal;
+				node = node.next;
+				return literal;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * @param successor
+	 * 						the node to insert the literal in front of, null to append it
+	 */
+	private Node insertBefore(Node successor, Literal literal) {
+		Node node = new Node(literal);
+		Node predecessor = successor == null ? last : successor.previous;
+		node.previous = predecessor;
+		node.next = successor;
+		if(predecessor == null) {
+			first = node;
+		} else {
+			predecessor.next = node;
+		}
+		if(successor == null) {
+			last = node;
+		} else {
+			successor.previous = node;
+		}
+		++size;
+		return node;
+	}
+
+	private static void checkLinked(Node node) {
+		if(node.isRemoved) {
+			throw new IllegalStateException("literal has already been removed from the goal: " + node.literal);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("Goal [");
+		for(Node node = first; node != null; node = node.next) {
+			s.append(node.literal.getName()).append(node.next == null ? "" : ", ");
+		}
+		return s.append("]").toString();
+	}
+}
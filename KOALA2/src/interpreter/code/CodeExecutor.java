@@ -0,0 +1,936 @@
+package interpreter.code;
+
+import interpreter.data.ChocoStore;
+import interpreter.data.Environment;
+import interpreter.data.ListVariable;
+import interpreter.data.Literal;
+import interpreter.data.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import choco.Choco;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerConstantVariable;
+import choco.kernel.model.variables.integer.IntegerExpressionVariable;
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * Runs the code of rules on activation frames against a store. An executor
+ * keeps no state between calls, it may be shared by the checks of all
+ * closures of an interpreter.
+ */
+public final class CodeExecutor {
+
+	private enum Match {
+		TRUE,
+		FALSE,
+		UNKNOWN
+	}
+
+	private static final String UNSUPPORTED_LIST_INEQUALITY = "Inequality constraints on lists are not supported (yet)!";
+
+	/**
+	 * the result of evaluating an expression that is not ground: it contains
+	 * a variable that is not a number, divides by zero or leaves the range of
+	 * ints; such expressions are left to the solver
+	 */
+	private static final long NOT_GROUND = Expr.UNDEFINED;
+
+	private final ChocoStore store;
+
+	/**
+	 * the bounds of all integer variables created
+	 */
+	private Interval domain;
+
+	public CodeExecutor(ChocoStore store) {
+		this.store = store;
+		this.domain = new Interval(Choco.MIN_LOWER_BOUND, Choco.MAX_UPPER_BOUND);
+	}
+
+	/**
+	 * restricts the values of all integer variables created from now on; the
+	 * default is the domain of the solver
+	 *
+	 * @throws IllegalArgumentException
+	 * 						if the bounds are empty or exceed the domain of the solver
+	 */
+	public void setDomain(int lower, int upper) {
+		if(lower > upper || lower < Choco.MIN_LOWER_BOUND || upper > Choco.MAX_UPPER_BOUND) {
+			throw new IllegalArgumentException("invalid domain [" + lower + ", " + upper + "], expected bounds within ["
+					+ Choco.MIN_LOWER_BOUND + ", " + Choco.MAX_UPPER_BOUND + "]");
+		}
+		this.domain = new Interval(lower, upper);
+	}
+
+	/**
+	 * evaluates the ask of a rule on a frame with bound parameters, list
+	 * patterns are matched right away and bind the variables they contain
+	 *
+	 * @param guard
+	 * 						receives the numeric ask-constraints, which are left to
+	 * 						the caller to be asked; null if they are not needed
+	 * @return false if the ask fails regardless of the numeric constraints
+	 */
+	public boolean ask(RuleCode code, Environment environment, List<Constraint> guard) {
+		for(Instruction instruction : code.ask) {
+			if(!ask(instruction, environment, guard)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean ask(Instruction instruction, Environment environment, List<Constraint> guard) {
+		switch(instruction.opcode) {
+		case MATCH: {
+			Value value = environment.get(instruction.slot);
+			if(!value.isInit()) {
+				return false;
+			}
+			Match match = value.isListVar() ? match(value.getListVar(), instruction.pattern, environment) : Match.FALSE;
+			//ask-constraint with unbound variables must always fail
+			return match == expected(instruction.relation);
+		}
+		case COMPARE: {
+			Value left = environment.get(instruction.slot);
+			Value right = environment.get(instruction.operand);
+			if(isInteger(left) && isInteger(right)) {
+				//numbers and variables fixed by the store are compared right away
+				long l = valueOf(left, store);
+				long r = l == NOT_GROUND ? NOT_GROUND : valueOf(right, store);
+				if(r != NOT_GROUND) {
+					return instruction.relation.holds(l, r);
+				}
+				if(guard != null) {
+					guard.add(createConstraint(instruction, environment, null));
+				}
+				return true;
+			} else if(left.isListVar() && right.isListVar()) {
+				return compare(left.getListVar(), right.getListVar()) == expected(instruction.relation);
+			}
+			return false;
+		}
+		case CONSTRAIN:
+			if(!environment.get(instruction.slot).isInit()) {
+				return false;
+			}
+			for(int operand : instruction.operands) {
+				if(!environment.get(operand).isInit()) {
+					return false;
+				}
+			}
+			long left = valueOf(environment.get(instruction.slot), store);
+			if(left != NOT_GROUND) {
+				long n = evaluate(instruction.expr, environment, store);
+				if(n != NOT_GROUND) {
+					return instruction.relation.holds(left, n);
+				}
+			}
+			if(guard != null) {
+				guard.add(createConstraint(instruction, environment, null));
+			}
+			return true;
+		case FAIL:
+			return false;
+		default:
+			throw new AssertionError("unexpected instruction in ask: " + instruction);
+		}
+	}
+
+	/**
+	 * evaluates the tell of a rule whose ask is entailed without changing the
+	 * store; variables of the frame are initialized as the tell requires
+	 *
+	 * @param constraints
+	 * 						receives the numeric tell-constraints
+	 * @param variables
+	 * 						receives the integer variables occurring in them
+	 * @param lists
+	 * 						receives the unbound lists the tell is going to bind
+	 * @return true if the tell is consistent with the store
+	 */
+	public boolean checkTell(RuleCode code, Environment environment, List<Constraint> constraints,
+			List<IntegerVariable> variables, List<ListVariable> lists) {
+		if(code.tell.length == 0) {
+			return true;
+		}
+		//variables told so far, a variable may only be told once
+		boolean[] bound = new boolean[environment.getLayout().size()];
+		for(Instruction instruction : code.tell) {
+			if(!checkTell(instruction, environment, bound, constraints, variables, lists)) {
+				return false;
+			}
+		}
+
+		//check tell of conjunction of all numeric constraints
+		if(constraints.isEmpty()) {
+			return true;
+		}
+		Constraint conjunction = Choco.and(constraints.toArray(new Constraint[constraints.size()]));
+		store.scope(conjunction, variables);
+		return store.isTellOk(conjunction);
+	}
+
+	private boolean checkTell(Instruction instruction, Environment environment, boolean[] bound,
+			List<Constraint> constraints, List<IntegerVariable> variables, List<ListVariable> lists) {
+		switch(instruction.opcode) {
+		case MATCH:
+			if(instruction.relation != Relation.EQ) {
+				throw new UnsupportedOperationException(UNSUPPORTED_LIST_INEQUALITY);
+			}
+			return bindList(instruction.slot, environment, bound, lists);
+		case COMPARE: {
+			if(bound[instruction.slot]) {
+				return false;
+			}
+			Value left = environment.get(instruction.slot);
+			Value right = environment.get(instruction.operand);
+			if(instruction.relation == Relation.EQ && isAliasable(left, right)) {
+				//variables told equal share one value, the store never sees them
+				bound[instruction.slot] = true;
+				alias(left, right);
+				return true;
+			} else if(left.isInit()) {
+				if(left.isInt()) {
+					return false;
+				} else if(left.isIntVar()) {
+					return (!right.isInit() || isInteger(right))
+							&& addIntConstraint(instruction, environment, bound, constraints, variables);
+				}
+				//lists may only be linked to unbound lists, inequality leaves them alone
+				return instruction.relation != Relation.EQ
+						|| (left.getListVar().isUnbound() && right.isListVar()
+								&& bindList(instruction.slot, environment, bound, lists));
+			} else if(right.isInit()) {
+				if(isInteger(right)) {
+					return addIntConstraint(instruction, environment, bound, constraints, variables);
+				}
+				return true;
+			}
+			return false;
+		}
+		case CONSTRAIN:
+			return addIntConstraint(instruction, environment, bound, constraints, variables);
+		case FAIL:
+			return false;
+		default:
+			throw new AssertionError("unexpected instruction in tell: " + instruction);
+		}
+	}
+
+	private boolean addIntConstraint(Instruction instruction, Environment environment, boolean[] bound,
+			List<Constraint> constraints, List<IntegerVariable> variables) {
+		if(bound[instruction.slot]) {
+			return false;
+		}
+		Value left = environment.get(instruction.slot);
+		if(left.isInt()) {
+			return false;
+		}
+		bound[instruction.slot] = true;
+		if(fix(instruction, environment)) {
+			return true;
+		} else if(!left.isInit()) {
+			left.init(makeIntVar(left, bounds(instruction, environment)));
+		}
+		initIntVariables(instruction, environment);
+		constraints.add(createConstraint(instruction, environment, variables));
+		return true;
+	}
+
+	private static boolean bindList(int slot, Environment environment, boolean[] bound, List<ListVariable> lists) {
+		if(bound[slot]) {
+			return false;
+		}
+		bound[slot] = true;
+		Value value = environment.get(slot);
+		if(!value.isInit()) {
+			value.init(new ListVariable());
+			return true;
+		}
+		if(value.isListVar() && value.getListVar().isUnbound()) {
+			//a list of the goal, bound once the closure is committed
+			lists.add(value.getListVar().getRepresentative());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * evaluates the tell of a rule whose tell has been checked, changing the store
+	 *
+	 * @param isListOnly
+	 * 						if true, numeric constraints are skipped since they have
+	 * 						been told to the store already
+	 * @param toldVariables
+	 * 						receives the integer variables occurring in the numeric
+	 * 						constraints told, may be null if isListOnly is set
+	 */
+	public void tell(RuleCode code, Environment environment, boolean isListOnly, List<IntegerVariable> toldVariables) {
+		for(Instruction instruction : code.tell) {
+			switch(instruction.opcode) {
+			case MATCH: {
+				if(instruction.relation != Relation.EQ) {
+					throw new UnsupportedOperationException(UNSUPPORTED_LIST_INEQUALITY);
+				}
+				Value value = environment.get(instruction.slot);
+				if(!value.isInit()) {
+					value.init(new ListVariable());
+				}
+				build(value.getListVar(), instruction.pattern, environment);
+				break;
+			}
+			case COMPARE: {
+				Value left = environment.get(instruction.slot);
+				Value right = environment.get(instruction.operand);
+				if(instruction.relation == Relation.EQ && isAliasable(left, right)) {
+					alias(left, right);
+				} else if(left.isInit()) {
+					if(left.isIntVar()) {
+						tellIntConstraint(instruction, environment, isListOnly, toldVariables);
+					} else if(left.isListVar()) {
+						link(instruction, left.getListVar(), right.getListVar());
+					}
+				} else if(right.isInit()) {
+					if(isInteger(right)) {
+						tellIntConstraint(instruction, environment, isListOnly, toldVariables);
+					} else if(right.isListVar()) {
+						left.init(new ListVariable());
+						link(instruction, left.getListVar(), right.getListVar());
+					}
+				}
+				break;
+			}
+			case CONSTRAIN:
+				tellIntConstraint(instruction, environment, isListOnly, toldVariables);
+				break;
+			case FAIL:
+				//a checked tell never contains false
+				break;
+			default:
+				throw new AssertionError("unexpected instruction in tell: " + instruction);
+			}
+		}
+	}
+
+	private void tellIntConstraint(Instruction instruction, Environment environment, boolean isListOnly,
+			List<IntegerVariable> toldVariables) {
+		if(isListOnly || fix(instruction, environment)) {
+			return;
+		}
+		Value left = environment.get(instruction.slot);
+		if(!left.isInit()) {
+			left.init(makeIntVar(left, bounds(instruction, environment)));
+		}
+		initIntVariables(instruction, environment);
+		store.tell(createConstraint(instruction, environment, toldVariables));
+	}
+
+	private static void link(Instruction instruction, ListVariable list1, ListVariable list2) {
+		if(instruction.relation != Relation.EQ) {
+			throw new UnsupportedOperationException(UNSUPPORTED_LIST_INEQUALITY);
+		}
+		list1.aliasTo(list2);
+	}
+
+	/**
+	 * @return true if an equation between two variables can be told by
+	 * 			aliasing: one of them is uninitialized or they already share
+	 * 			their value or the representative of their integer variables
+	 */
+	private boolean isAliasable(Value left, Value right) {
+		return !left.isInit() || !right.isInit()
+				|| left.getRepresentative() == right.getRepresentative()
+				|| (left.isIntVar() && !left.isInt() && right.isIntVar()
+						&& store.getRepresentative(left.getIntVar()) == store.getRepresentative(right.getIntVar()));
+	}
+
+	/**
+	 * tells two variables equal, the uninitialized one becomes an alias of
+	 * the other
+	 */
+	private static void alias(Value left, Value right) {
+		if(!left.isInit()) {
+			left.aliasTo(right);
+		} else if(!right.isInit()) {
+			right.aliasTo(left);
+		}
+	}
+
+	/**
+	 * creates the literals of the body of a rule
+	 *
+	 * @param literals
+	 * 						receives the literals in the order of the body
+	 */
+	public static void spawn(RuleCode code, Environment environment, List<Literal> literals) {
+		for(Instruction instruction : code.body) {
+			List<Value> args = new ArrayList<>(instruction.args.length);
+			for(Term arg : instruction.args) {
+				args.add(create(arg, environment));
+			}
+			literals.add(new Literal(instruction.name, args));
+		}
+	}
+
+	/**
+	 * @return the value of a variable or a new value holding a number or list
+	 */
+	private static Value create(Term term, Environment environment) {
+		switch(term.kind) {
+		case NUMBER: {
+			Value value = new Value("");
+			value.init(new IntegerConstantVariable(term.value));
+			return value;
+		}
+		case VARIABLE:
+			return environment.get(term.value);
+		case LIST: {
+			ListVariable list = new ListVariable();
+			build(list, term, environment);
+			Value value = new Value("");
+			value.init(list);
+			return value;
+		}
+		default:
+			return new Value("_");
+		}
+	}
+
+	/**
+	 * binds an unbound list to the given pattern, the numbers the pattern
+	 * starts with are stored compactly
+	 */
+	private static void build(ListVariable list, Term pattern, Environment environment) {
+		int count = pattern.numbers.length;
+		if(count > 0) {
+			if(count == pattern.elements.length) {
+				list.setInts(pattern.numbers, createTail(pattern.tail, environment));
+				return;
+			}
+			Value rest = new Value("");
+			rest.init(new ListVariable());
+			list.setInts(pattern.numbers, rest);
+			list = rest.getListVar();
+		}
+
+		ListVariable previousListNode = null;
+		for(int i=count; i<pattern.elements.length; ++i) {
+			list.setHead(create(pattern.elements[i], environment));
+			previousListNode = list;
+			list = list.getTail().getListVar();
+		}
+
+		Term tail = pattern.tail;
+		if(tail == null) {
+			list.setEmpty();
+		} else if(tail.kind == Term.Kind.VARIABLE) {
+			Value value = environment.get(tail.value);
+			if(!value.isInit()) {
+				value.init(new ListVariable());
+			}
+			previousListNode.setTail(value);
+		} else if(tail.kind == Term.Kind.LIST) {
+			build(list, tail, environment);
+		} else {
+			Value value = new Value("_");
+			value.init(new ListVariable());
+			previousListNode.setTail(value);
+		}
+	}
+
+	/**
+	 * @return the list following the pattern [...|tail] after the elements
+	 */
+	private static Value createTail(Term tail, Environment environment) {
+		if(tail == null) {
+			Value value = new Value("");
+			value.init(new ListVariable());
+			value.getListVar().setEmpty();
+			return value;
+		} else if(tail.kind == Term.Kind.VARIABLE) {
+			Value value = environment.get(tail.value);
+			if(!value.isInit()) {
+				value.init(new ListVariable());
+			}
+			return value;
+		}
+		Value value = new Value(tail.kind == Term.Kind.LIST ? "" : "_");
+		value.init(new ListVariable());
+		if(tail.kind == Term.Kind.LIST) {
+			build(value.getListVar(), tail, environment);
+		}
+		return value;
+	}
+
+	private Match match(ListVariable list, Term pattern, Environment environment) {
+		if(list.isUnbound()) {
+			return Match.UNKNOWN;
+		}
+		if(list.isEmpty() != (pattern.elements.length == 0)) {
+			return Match.FALSE;
+		}
+
+		//match each list element to its pattern
+		boolean isOpen = pattern.tail != null;
+		//numbers of the compact run at the start of list matched so far
+		int consumed = 0;
+		for(Term element : pattern.elements) {
+			//check if list is bound and non-empty (pattern isn't)
+			if(list.isUnbound()) {
+				return Match.UNKNOWN;
+			} else if(list.isEmpty()) {
+				return Match.FALSE;
+			}
+			Match match;
+			int count = list.getIntCount();
+			if(count > 0) {
+				match = matchElement(list.getInt(consumed), element, environment);
+				if(++consumed == count) {
+					list = list.dropInts(consumed).getListVar();
+					consumed = 0;
+				}
+			} else {
+				match = matchElement(list.getHead(), element, isOpen, environment);
+				list = list.getTail().getListVar();
+			}
+			if(match != Match.TRUE) {
+				return match;
+			}
+		}
+		if(consumed > 0) {
+			list = list.dropInts(consumed).getListVar();
+		}
+
+		if(!isOpen) {
+			//check if tail is bound and empty (list is immediate)
+			if(list.isUnbound()) {
+				return Match.UNKNOWN;
+			}
+			return list.isEmpty() ? Match.TRUE : Match.FALSE;
+		}
+
+		Term tail = pattern.tail;
+		if(tail.kind == Term.Kind.VARIABLE) {
+			Value var = environment.get(tail.value);
+			if(var.isListVar()) {
+				return compare(list, var.getListVar());
+			} else if(var.isInit()) {
+				return Match.FALSE;
+			}
+			var.init(list);
+		} else if(tail.kind == Term.Kind.LIST) {
+			return match(list, tail, environment);
+		}
+		return Match.TRUE;
+	}
+
+	/**
+	 * @param isOpen
+	 * 						true if the element belongs to a pattern [...|tail]
+	 */
+	private Match matchElement(Value head, Term element, boolean isOpen, Environment environment) {
+		switch(element.kind) {
+		case NUMBER:
+			return matchInt(head, element.value);
+		case VARIABLE: {
+			Value var = environment.get(element.value);
+			if(var.isInt()) {
+				//local variable is integer constant
+				return matchInt(head, var.getInt().getValue());
+			} else if(var.isIntVar()) {
+				//local variable is integer variable
+				Integer n = store.getValueOfVar(var.getIntVar());
+				return n == null ? Match.UNKNOWN : matchInt(head, n.intValue());
+			} else if(var.isListVar()) {
+				//local variable is list
+				if(head.isListVar()) {
+					return compare(var.getListVar(), head.getListVar());
+				}
+				return head.isInit() ? Match.FALSE : Match.UNKNOWN;
+			}
+
+			//var is not initialized -> init var with list head
+			if(head.isInt()) {
+				var.init(head.getInt());
+			} else if(head.isIntVar()) {
+				var.init(head.getIntVar());
+			} else if(head.isListVar()) {
+				var.init(head.getListVar());
+			} else {
+				return Match.UNKNOWN;
+			}
+			return Match.TRUE;
+		}
+		case LIST:
+			if(head.isListVar()) {
+				return match(head.getListVar(), element, environment);
+			}
+			//head element is NOT a list -> mismatch
+			return !isOpen || head.isInit() ? Match.FALSE : Match.UNKNOWN;
+		default:
+			//wildcard, head is arbitrary
+			return Match.TRUE;
+		}
+	}
+
+	/**
+	 * matches a number of a compact run like a head holding the number
+	 */
+	private Match matchElement(int head, Term element, Environment environment) {
+		switch(element.kind) {
+		case NUMBER:
+			return head == element.value ? Match.TRUE : Match.FALSE;
+		case VARIABLE: {
+			Value var = environment.get(element.value);
+			if(var.isInt()) {
+				return head == var.getInt().getValue() ? Match.TRUE : Match.FALSE;
+			} else if(var.isIntVar()) {
+				Integer n = store.getValueOfVar(var.getIntVar());
+				if(n == null) {
+					return Match.UNKNOWN;
+				}
+				return head == n.intValue() ? Match.TRUE : Match.FALSE;
+			} else if(var.isListVar()) {
+				return Match.FALSE;
+			}
+			var.init(new IntegerConstantVariable(head));
+			return Match.TRUE;
+		}
+		case LIST:
+			return Match.FALSE;
+		default:
+			return Match.TRUE;
+		}
+	}
+
+	private Match matchInt(Value head, int n) {
+		if(head.isInt()) {
+			return head.getInt().getValue() == n ? Match.TRUE : Match.FALSE;
+		} else if(head.isIntVar()) {
+			Integer integer = store.getValueOfVar(head.getIntVar());
+			if(integer == null) {
+				return Match.UNKNOWN;
+			}
+			return integer.intValue() == n ? Match.TRUE : Match.FALSE;
+		}
+		//a list does not match, an uninitialized head may still become n
+		return head.isInit() ? Match.FALSE : Match.UNKNOWN;
+	}
+
+	private Match compare(ListVariable list1, ListVariable list2) {
+		while(true) {
+			if(list1.isUnbound() || list2.isUnbound()) {
+				return Match.UNKNOWN;
+			}
+
+			if(list1.isEmpty() != list2.isEmpty()) {
+				return Match.FALSE;
+			} else if(list1.isEmpty() && list2.isEmpty()) {
+				return Match.TRUE;
+			}
+
+			int count1 = list1.getIntCount();
+			int count2 = list2.getIntCount();
+			if(count1 > 0 && count2 > 0) {
+				//compare compact runs without creating list cells
+				int n = Math.min(count1, count2);
+				for(int i=0; i<n; ++i) {
+					if(list1.getInt(i) != list2.getInt(i)) {
+						return Match.FALSE;
+					}
+				}
+				list1 = list1.dropInts(n).getListVar();
+				list2 = list2.dropInts(n).getListVar();
+				continue;
+			}
+
+			Value head1 = list1.getHead();
+			Value head2 = list2.getHead();
+			if(head1.isInt() && head2.isInt()) {
+				if(head1.getInt().getValue() != head2.getInt().getValue()) {
+					return Match.FALSE;
+				}
+			} else if(head1.isIntVar() && head2.isIntVar()) {
+				Integer integer1 = store.getValueOfVar(head1.getIntVar());
+				Integer integer2 = store.getValueOfVar(head2.getIntVar());
+				if(integer1 == null || integer2 == null) {
+					return Match.UNKNOWN;
+				} else if(integer1.intValue() != integer2.intValue()) {
+					return Match.FALSE;
+				}
+			} else if(head1.isListVar() && head2.isListVar()) {
+				Match match = compare(head1.getListVar(), head2.getListVar());
+				if(match != Match.TRUE) {
+					return match;
+				}
+			} else if(!head1.isInit() || !head2.isInit()) {
+				return Match.UNKNOWN;
+			}
+			list1 = list1.getTail().getListVar();
+			list2 = list2.getTail().getListVar();
+		}
+	}
+
+	private static Match expected(Relation relation) {
+		return relation == Relation.EQ ? Match.TRUE : Match.FALSE;
+	}
+
+	private static boolean isInteger(Value value) {
+		return value.isInt() || value.isIntVar();
+	}
+
+	/**
+	 * tells an equation between an uninitialized variable and a ground
+	 * expression by initializing the variable with the number, the store
+	 * never sees the constraint
+	 *
+	 * @return true if the equation has been told
+	 */
+	private boolean fix(Instruction instruction, Environment environment) {
+		Value left = environment.get(instruction.slot);
+		if(instruction.relation != Relation.EQ || left.isInit()) {
+			return false;
+		}
+		long n = evaluate(instruction.expr, environment, null);
+		//a new variable could not take a number outside of the domain
+		if(n == NOT_GROUND || n < domain.lower || n > domain.upper) {
+			return false;
+		}
+		left.init(new IntegerConstantVariable((int)n));
+		return true;
+	}
+
+	/**
+	 * evaluates an expression whose variables are numbers, see
+	 * {@link Expr.Kind#apply(long, long)}
+	 *
+	 * @param store
+	 * 						the store whose fixed integer variables count as
+	 * 						numbers, null if only numbers do
+	 * @return the value of the expression or NOT_GROUND
+	 */
+	private static long evaluate(Expr expr, Environment environment, ChocoStore store) {
+		switch(expr.kind) {
+		case CONSTANT:
+			return expr.value;
+		case VARIABLE:
+			return valueOf(environment.get(expr.value), store);
+		case LINEAR: {
+			long n = expr.value;
+			for(int i=0; i<expr.slots.length && n != NOT_GROUND; ++i) {
+				long value = valueOf(environment.get(expr.slots[i]), store);
+				n = value == NOT_GROUND ? NOT_GROUND : add(n, expr.coefficients[i], value);
+			}
+			return n;
+		}
+		default:
+			break;
+		}
+		long left = evaluate(expr.left, environment, store);
+		long right = left == NOT_GROUND ? NOT_GROUND : evaluate(expr.right, environment, store);
+		return right == NOT_GROUND ? NOT_GROUND : expr.kind.apply(left, right);
+	}
+
+	/**
+	 * @param store
+	 * 						the store whose fixed integer variables count as
+	 * 						numbers, null if only numbers do
+	 * @return the number of the given value or NOT_GROUND
+	 */
+	private static long valueOf(Value value, ChocoStore store) {
+		if(value.isInt()) {
+			return value.getInt().getValue();
+		} else if(store != null && value.isIntVar()) {
+			Integer n = store.getValueOfVar(value.getIntVar());
+			return n == null ? NOT_GROUND : n.intValue();
+		}
+		return NOT_GROUND;
+	}
+
+	/**
+	 * @return n + coefficient * value or NOT_GROUND if it leaves the range of ints
+	 */
+	private static long add(long n, long coefficient, long value) {
+		long term = Expr.Kind.MULT.apply(coefficient, value);
+		return term == NOT_GROUND ? NOT_GROUND : Expr.Kind.PLUS.apply(n, term);
+	}
+
+	/**
+	 * initializes all uninitialized variables of the right-hand side of a
+	 * numeric constraint as integer variables
+	 */
+	private void initIntVariables(Instruction instruction, Environment environment) {
+		for(int operand : instruction.operands) {
+			Value value = environment.get(operand);
+			if(!value.isInit()) {
+				value.init(makeIntVar(value, domain));
+			}
+		}
+	}
+
+	private static IntegerVariable makeIntVar(Value value, Interval bounds) {
+		return Choco.makeIntVar(value.getName(), (int)bounds.lower, (int)bounds.upper);
+	}
+
+	/**
+	 * infers the bounds of a new variable on the left-hand side of a numeric
+	 * constraint from the bounds of the right-hand side: numbers are exact,
+	 * integer variables keep the bounds they were created with and variables
+	 * yet to be created get the domain
+	 *
+	 * @return the narrowest bounds within the domain that do not exclude a
+	 * 			solution of the constraint
+	 */
+	private Interval bounds(Instruction instruction, Environment environment) {
+		Interval bounds = instruction.relation.solve(bounds(instruction.expr, environment)).intersect(domain);
+		//an empty range is left to the solver to fail on
+		return bounds.isEmpty() ? domain : bounds;
+	}
+
+	private Interval bounds(Expr expr, Environment environment) {
+		switch(expr.kind) {
+		case CONSTANT:
+			return Interval.point(expr.value);
+		case VARIABLE:
+			return bounds(environment.get(expr.value));
+		case PLUS:
+			return bounds(expr.left, environment).plus(bounds(expr.right, environment));
+		case MINUS:
+			return bounds(expr.left, environment).minus(bounds(expr.right, environment));
+		case MULT:
+			return bounds(expr.left, environment).mult(bounds(expr.right, environment));
+		case DIV:
+			return bounds(expr.left, environment).div(bounds(expr.right, environment));
+		case MOD:
+			return bounds(expr.left, environment).mod(bounds(expr.right, environment));
+		case LINEAR: {
+			Interval bounds = Interval.point(expr.value);
+			for(int i=0; i<expr.slots.length; ++i) {
+				bounds = bounds.plus(Interval.point(expr.coefficients[i]).mult(bounds(environment.get(expr.slots[i]))));
+			}
+			return bounds;
+		}
+		default:
+			throw new AssertionError("unexpected expression in bounds inference: " + expr);
+		}
+	}
+
+	private Interval bounds(Value entry) {
+		if(entry.isInt()) {
+			return Interval.point(entry.getInt().getValue());
+		} else if(entry.isIntVar()) {
+			return new Interval(entry.getIntVar().getLowB(), entry.getIntVar().getUppB());
+		}
+		return domain;
+	}
+
+	/**
+	 * creates a numeric constraint over the representatives of the integer
+	 * variables and hands them to the store; an equation between two integer
+	 * variables is handed over as such, so that the store may substitute one
+	 * by the other instead of telling it
+	 *
+	 * @param variables
+	 * 						receives all integer variables (excluding constants)
+	 * 						of the frame the constraint is created from, as the
+	 * 						literals hold them; may be null
+	 */
+	private Constraint createConstraint(Instruction instruction, Environment environment, List<IntegerVariable> variables) {
+		List<IntegerVariable> scope = new ArrayList<>(instruction.operands.length + 1);
+		Value entry = environment.get(instruction.slot);
+		IntegerVariable left = store.getRepresentative(entry.getIntVar());
+		addVariable(left, scope);
+		Constraint constraint = instruction.relation.create(left, createIntExpression(instruction.expr, environment, scope));
+		store.scope(constraint, scope);
+		if(instruction.relation == Relation.EQ && instruction.expr.kind == Expr.Kind.VARIABLE
+				&& !environment.get(instruction.expr.value).isInt()) {
+			store.equate(constraint, left, scope.get(1));
+		}
+		if(variables != null) {
+			addVariable(entry.getIntVar(), variables);
+			for(int operand : instruction.operands) {
+				Value value = environment.get(operand);
+				if(value.isIntVar()) {
+					addVariable(value.getIntVar(), variables);
+				}
+			}
+		}
+		return constraint;
+	}
+
+	private IntegerExpressionVariable createIntExpression(Expr expr, Environment environment, List<IntegerVariable> variables) {
+		switch(expr.kind) {
+		case CONSTANT:
+			return new IntegerConstantVariable(expr.value);
+		case VARIABLE:
+			return createIntVariable(environment.get(expr.value), variables);
+		case LINEAR:
+			return createScalarProduct(expr, environment, variables);
+		case PLUS:
+			return Choco.plus(createIntExpression(expr.left, environment, variables), createIntExpression(expr.right, environment, variables));
+		case MINUS:
+			return Choco.minus(createIntExpression(expr.left, environment, variables), createIntExpression(expr.right, environment, variables));
+		case MULT:
+			return Choco.mult(createIntExpression(expr.left, environment, variables), createIntExpression(expr.right, environment, variables));
+		case DIV:
+			return Choco.div(createIntExpression(expr.left, environment, variables), createIntExpression(expr.right, environment, variables));
+		case MOD:
+			return Choco.mod(createIntExpression(expr.left, environment, variables), createIntExpression(expr.right, environment, variables));
+		default:
+			throw new AssertionError("unexpected expression in constraint creation: " + expr);
+		}
+	}
+
+	private IntegerVariable createIntVariable(Value entry, List<IntegerVariable> variables) {
+		if(entry.isInt()) {
+			return entry.getInt();
+		} else if(entry.isIntVar()) {
+			IntegerVariable var = store.getRepresentative(entry.getIntVar());
+			addVariable(var, variables);
+			return var;
+		} else if(entry.isInit()) {
+			throw new AssertionError("unexpected list type variable in constraint creation: " + entry.getName() + " : " + entry);
+		}
+		throw new AssertionError("uninitialized variable in constraint creation: " + entry.getName() + " : " + entry);
+	}
+
+	/**
+	 * creates a linear expression as scalar product plus constant; operands
+	 * that are numbers are added to the constant
+	 */
+	private IntegerExpressionVariable createScalarProduct(Expr expr, Environment environment, List<IntegerVariable> variables) {
+		int[] coefficients = new int[expr.slots.length];
+		IntegerVariable[] vars = new IntegerVariable[expr.slots.length];
+		int size = 0;
+		long constant = expr.value;
+		for(int i=0; i<expr.slots.length; ++i) {
+			Value entry = environment.get(expr.slots[i]);
+			long sum = entry.isInt() ? add(constant, expr.coefficients[i], entry.getInt().getValue()) : NOT_GROUND;
+			if(sum != NOT_GROUND) {
+				constant = sum;
+			} else {
+				coefficients[size] = expr.coefficients[i];
+				vars[size++] = createIntVariable(entry, variables);
+			}
+		}
+		IntegerExpressionVariable product;
+		if(size == 0) {
+			return new IntegerConstantVariable((int) constant);
+		} else if(size == 1 && coefficients[0] == 1) {
+			product = vars[0];
+		} else {
+			product = Choco.scalar(Arrays.copyOf(coefficients, size), Arrays.copyOf(vars, size));
+		}
+		return constant == 0 ? product : Choco.plus(product, (int) constant);
+	}
+
+	private static void addVariable(IntegerVariable var, List<IntegerVariable> variables) {
+		if(!(var instanceof IntegerConstantVariable)) {
+			variables.add(var);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package interpreter.code;
+
+/**
+ * The right-hand side of a numeric constraint, with numbers decoded and
+ * variables resolved to their slots. A linear expression is kept as its
+ * coefficients, so that it becomes a single scalar product in the solver.
+ */
+final class Expr {
+
+	/**
+	 * the result of an operation that is undefined on ints
+	 */
+	static final long UNDEFINED = Long.MIN_VALUE;
+
+	enum Kind {
+		CONSTANT(""),
+		VARIABLE(""),
+		LINEAR(""),
+		PLUS("+"),
+		MINUS("-"),
+		MULT("*"),
+		DIV("/"),
+		MOD("%");
+
+		private final String symbol;
+
+		private Kind(String symbol) {
+			this.symbol = symbol;
+		}
+
+		/**
+		 * applies a binary operator to two ints; division and remainder
+		 * truncate towards zero like the operators of the solver
+		 *
+		 * @return the result or UNDEFINED on division by zero or if the
+		 * 			result leaves the range of ints
+		 */
+		long apply(long left, long right) {
+			long n;
+			switch(this) {
+			case PLUS:
+				n = left + right;
+				break;
+			case MINUS:
+				n = left - right;
+				break;
+			case MULT:
+				n = left * right;
+				break;
+			case DIV:
+				if(right == 0) {
+					return UNDEFINED;
+				}
+				n = left / right;
+				break;
+			case MOD:
+				if(right == 0) {
+					return UNDEFINED;
+				}
+				n = left % right;
+				break;
+			default:
+				throw new AssertionError("not a binary operator: " + this);
+			}
+			return n < Integer.MIN_VALUE || n > Integer.MAX_VALUE ? UNDEFINED : n;
+		}
+	}
+
+	final Kind kind;
+
+	/**
+	 * the constant, the slot of the variable or the constant term of a linear
+	 * expression
+	 */
+	final int value;
+
+	final Expr left;
+	final Expr right;
+
+	/**
+	 * the coefficients of a linear expression and the slots of the variables
+	 * they belong to
+	 */
+	final int[] coefficients;
+	final int[] slots;
+
+	private Expr(Kind kind, int value, Expr left, Expr right, int[] coefficients, int[] slots) {
+		this.kind = kind;
+		this.value = value;
+		this.left = left;
+		this.right = right;
+		this.coefficients = coefficients;
+		this.slots = slots;
+	}
+
+	static Expr constant(int n) {
+		return new Expr(Kind.CONSTANT, n, null, null, null, null);
+	}
+
+	static Expr variable(int slot) {
+		return new Expr(Kind.VARIABLE, slot, null, null, null, null);
+	}
+
+	static Expr binary(Kind kind, Expr left, Expr right) {
+		return new Expr(kind, 0, left, right, null, null);
+	}
+
+	/**
+	 * @return the expression c1*v1 + ... + cn*vn + constant
+	 */
+	static Expr linear(int[] coefficients, int[] slots, int constant) {
+		return new Expr(Kind.LINEAR, constant, null, null, coefficients, slots);
+	}
+
+	@Override
+	public String toString() {
+		switch(kind) {
+		case CONSTANT:
+			return "" + value;
+		case VARIABLE:
+			return "$" + value;
+		case LINEAR: {
+			StringBuilder s = new StringBuilder("(");
+			for(int i=0; i<slots.length; ++i) {
+				s.append(coefficients[i]).append("*$").append(slots[i]).append(" + ");
+			}
+			return s.append(value).append(")").toString();
+		}
+		default:
+			return "(" + left + " " + kind.symbol + " " + right + ")";
+		}
+	}
+}
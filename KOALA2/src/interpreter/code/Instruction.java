@@ -0,0 +1,93 @@
+package interpreter.code;
+
+import java.util.Arrays;
+
+/**
+ * A single instruction of a compiled rule. Only the fields used by its
+ * opcode are set.
+ */
+final class Instruction {
+
+	static final Instruction FAIL = new Instruction(Opcode.FAIL, null, -1, -1, null, null, null, null, null);
+
+	final Opcode opcode;
+	final Relation relation;
+
+	/**
+	 * the slot of the left-hand side variable
+	 */
+	final int slot;
+
+	/**
+	 * the slot of the right-hand side variable of a COMPARE
+	 */
+	final int operand;
+
+	/**
+	 * the list pattern of a MATCH
+	 */
+	final Term pattern;
+
+	/**
+	 * the right-hand side of a COMPARE or CONSTRAIN as numeric expression
+	 */
+	final Expr expr;
+
+	/**
+	 * the slots of all variables occurring in expr
+	 */
+	final int[] operands;
+
+	/**
+	 * the predicate name and the arguments of a SPAWN
+	 */
+	final String name;
+	final Term[] args;
+
+	private Instruction(Opcode opcode, Relation relation, int slot, int operand, Term pattern,
+			Expr expr, int[] operands, String name, Term[] args) {
+		this.opcode = opcode;
+		this.relation = relation;
+		this.slot = slot;
+		this.operand = operand;
+		this.pattern = pattern;
+		this.expr = expr;
+		this.operands = operands;
+		this.name = name;
+		this.args = args;
+	}
+
+	static Instruction match(Relation relation, int slot, Term pattern) {
+		return new Instruction(Opcode.MATCH, relation, slot, -1, pattern, null, null, null, null);
+	}
+
+	static Instruction compare(Relation relation, int slot, int operand) {
+		return new Instruction(Opcode.COMPARE, relation, slot, operand, null,
+				Expr.variable(operand), new int[] {operand}, null, null);
+	}
+
+	static Instruction constrain(Relation relation, int slot, Expr expr, int[] operands) {
+		return new Instruction(Opcode.CONSTRAIN, relation, slot, -1, null, expr, operands, null, null);
+	}
+
+	static Instruction spawn(String name, Term[] args) {
+		return new Instruction(Opcode.SPAWN, null, -1, -1, null, null, null, name, args);
+	}
+
+	@Override
+	public String toString() {
+		switch(opcode) {
+		case MATCH:
+			return "MATCH $" + slot + " " + relation + " " + pattern;
+		case COMPARE:
+			return "COMPARE $" + slot + " " + relation + " $" + operand;
+		case CONSTRAIN:
+			return "CONSTRAIN $" + slot + " " + relation + " " + expr;
+		case SPAWN:
+			String s = Arrays.toString(args);
+			return "SPAWN " + name + "(" + s.substring(1, s.length() - 1) + ")";
+		default:
+			return opcode.toString();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package interpreter.code;
+
+/**
+ * A closed range of integers bounding the values a numeric expression can
+ * take. Bounds never leave the range of ints, operations on intervals
+ * therefore never overflow.
+ */
+final class Interval {
+
+	final long lower;
+	final long upper;
+
+	Interval(long lower, long upper) {
+		this.lower = clamp(lower);
+		this.upper = clamp(upper);
+	}
+
+	static Interval point(long n) {
+		return new Interval(n, n);
+	}
+
+	boolean isEmpty() {
+		return lower > upper;
+	}
+
+	Interval intersect(Interval other) {
+		return new Interval(Math.max(lower, other.lower), Math.min(upper, other.upper));
+	}
+
+	Interval plus(Interval other) {
+		return new Interval(lower + other.lower, upper + other.upper);
+	}
+
+	Interval minus(Interval other) {
+		return new Interval(lower - other.upper, upper - other.lower);
+	}
+
+	Interval mult(Interval other) {
+		return hull(lower * other.lower, lower * other.upper, upper * other.lower, upper * other.upper);
+	}
+
+	/**
+	 * division truncating towards zero; it is monotonic in each operand as
+	 * long as the divisor keeps its sign, so the extremes lie at the corners
+	 */
+	Interval div(Interval other) {
+		if(other.lower <= 0 && other.upper >= 0) {
+			//the divisor may be +-1, the quotient is at most as large as the dividend
+			long n = Math.max(Math.abs(lower), Math.abs(upper));
+			return new Interval(-n, n);
+		}
+		return hull(lower / other.lower, lower / other.upper, upper / other.lower, upper / other.upper);
+	}
+
+	/**
+	 * remainder of the division truncating towards zero: it takes the sign of
+	 * the dividend and is smaller than the divisor in magnitude
+	 */
+	Interval mod(Interval other) {
+		long n = Math.max(Math.max(Math.abs(other.lower), Math.abs(other.upper)) - 1, 0);
+		return new Interval(lower < 0 ? Math.max(lower, -n) : 0, upper > 0 ? Math.min(upper, n) : 0);
+	}
+
+	private static Interval hull(long a, long b, long c, long d) {
+		return new Interval(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)));
+	}
+
+	private static long clamp(long n) {
+		return Math.max(Integer.MIN_VALUE, Math.min(n, Integer.MAX_VALUE));
+	}
+
+	@Override
+	public String toString() {
+		return "[" + lower + ", " + upper + "]";
+	}
+}
@@ -0,0 +1,36 @@
+package interpreter.code;
+
+/**
+ * The operations of compiled rules. The ask and the tell of a rule share
+ * the constraint opcodes, an instruction is interpreted according to the
+ * part of the rule it has been compiled from.
+ */
+enum Opcode {
+
+	/**
+	 * X = [...] or X =//= [...], matches a list against a pattern in the ask
+	 * and builds the list of the pattern in the tell
+	 */
+	MATCH,
+
+	/**
+	 * X = Y or X =//= Y, compares two integers or two lists in the ask and
+	 * constrains or links them in the tell
+	 */
+	COMPARE,
+
+	/**
+	 * a numeric constraint X op expr
+	 */
+	CONSTRAIN,
+
+	/**
+	 * false
+	 */
+	FAIL,
+
+	/**
+	 * a predicate call of the body
+	 */
+	SPAWN
+}
@@ -0,0 +1,96 @@
+package interpreter.code;
+
+import choco.Choco;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerExpressionVariable;
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * The relational operators of constraints.
+ */
+enum Relation {
+	EQ("="),
+	NEQ("=//="),
+	LT("<"),
+	GT(">"),
+	LEQ("<="),
+	GEQ(">=");
+
+	private final String symbol;
+
+	private Relation(String symbol) {
+		this.symbol = symbol;
+	}
+
+	/**
+	 * @return the numeric constraint left op right
+	 */
+	Constraint create(IntegerVariable left, IntegerExpressionVariable right) {
+		switch(this) {
+		case EQ:
+			return Choco.eq(left, right);
+		case NEQ:
+			return Choco.neq(left, right);
+		case LT:
+			return Choco.lt(left, right);
+		case GT:
+			return Choco.gt(left, right);
+		case LEQ:
+			return Choco.leq(left, right);
+		case GEQ:
+			return Choco.geq(left, right);
+		default:
+			throw new AssertionError("unexpected relation " + this);
+		}
+	}
+
+	/**
+	 * @return true if left op right holds for two numbers
+	 */
+	boolean holds(long left, long right) {
+		switch(this) {
+		case EQ:
+			return left == right;
+		case NEQ:
+			return left != right;
+		case LT:
+			return left < right;
+		case GT:
+			return left > right;
+		case LEQ:
+			return left <= right;
+		case GEQ:
+			return left >= right;
+		default:
+			throw new AssertionError("unexpected relation " + this);
+		}
+	}
+
+	/**
+	 * @return the values of left for which left op right holds for some
+	 * 			value of right within the given bounds
+	 */
+	Interval solve(Interval right) {
+		switch(this) {
+		case EQ:
+			return right;
+		case NEQ:
+			return new Interval(Integer.MIN_VALUE, Integer.MAX_VALUE);
+		case LT:
+			return new Interval(Integer.MIN_VALUE, right.upper - 1);
+		case GT:
+			return new Interval(right.lower + 1, Integer.MAX_VALUE);
+		case LEQ:
+			return new Interval(Integer.MIN_VALUE, right.upper);
+		case GEQ:
+			return new Interval(right.lower, Integer.MAX_VALUE);
+		default:
+			throw new AssertionError("unexpected relation " + this);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return symbol;
+	}
+}
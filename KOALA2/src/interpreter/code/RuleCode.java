@@ -0,0 +1,47 @@
+package interpreter.code;
+
+/**
+ * A rule lowered to instructions over the slots of its activation frames.
+ * Numbers are decoded and variables resolved once when the rule is compiled,
+ * so running the code never touches the syntax tree of the rule.
+ *
+ * The code is immutable and can be run on any number of frames concurrently.
+ *
+ * @see RuleCompiler
+ * @see CodeExecutor
+ */
+public final class RuleCode {
+
+	final Instruction[] ask;
+	final Instruction[] tell;
+	final Instruction[] body;
+
+	RuleCode(Instruction[] ask, Instruction[] tell, Instruction[] body) {
+		this.ask = ask;
+		this.tell = tell;
+		this.body = body;
+	}
+
+	/**
+	 * @return the number of predicate calls in the body
+	 */
+	public int getBodySize() {
+		return body.length;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("RuleCode");
+		append(s, "ask", ask);
+		append(s, "tell", tell);
+		append(s, "body", body);
+		return s.toString();
+	}
+
+	private static void append(StringBuilder s, String part, Instruction[] instructions) {
+		s.append("\n").append(part).append(":");
+		for(Instruction i : instructions) {
+			s.append("\n\t").append(i);
+		}
+	}
+}
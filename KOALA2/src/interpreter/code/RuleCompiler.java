@@ -0,0 +1,322 @@
+package interpreter.code;
+
+import interpreter.data.FrameLayout;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import parser.node.ADivExpr;
+import parser.node.AEqExpr;
+import parser.node.AFalseExpr;
+import parser.node.AGeqExpr;
+import parser.node.AGtExpr;
+import parser.node.ALeqExpr;
+import parser.node.AListConstructorExpr;
+import parser.node.AListExpr;
+import parser.node.ALtExpr;
+import parser.node.AMinusExpr;
+import parser.node.AModExpr;
+import parser.node.AMultExpr;
+import parser.node.ANeqExpr;
+import parser.node.ANumberExpr;
+import parser.node.APlusExpr;
+import parser.node.APredCallExpr;
+import parser.node.ARule;
+import parser.node.ATrueExpr;
+import parser.node.AVarExpr;
+import parser.node.AWildcardExpr;
+import parser.node.PExpr;
+import parser.node.TIdent;
+
+/**
+ * Lowers a checked rule to {@link RuleCode}. The rule must be free of
+ * errors, constructs rejected by the context checker are not compiled.
+ * Numeric expressions are simplified once here: constant subexpressions
+ * are folded and linear expressions are brought into scalar form.
+ */
+public final class RuleCompiler {
+
+	/**
+	 * a linear expression while it is being collected, coefficients by slot
+	 */
+	private static final class Linear {
+
+		final Map<Integer, Long> coefficients = new LinkedHashMap<>();
+		long constant;
+
+		Linear(long constant) {
+			this.constant = constant;
+		}
+
+		boolean isConstant() {
+			return coefficients.isEmpty();
+		}
+
+		/**
+		 * @return this + factor * other or null if a coefficient leaves the
+		 * 			range of ints
+		 */
+		Linear add(Linear other, long factor) {
+			Linear sum = scale(1);
+			sum.constant = apply(Expr.Kind.PLUS, constant, apply(Expr.Kind.MULT, factor, other.constant));
+			for(Map.Entry<Integer, Long> e : other.coefficients.entrySet()) {
+				Long c = sum.coefficients.get(e.getKey());
+				sum.coefficients.put(e.getKey(), apply(Expr.Kind.PLUS, c == null ? 0 : c,
+						apply(Expr.Kind.MULT, factor, e.getValue())));
+			}
+			return sum.isDefined() ? sum : null;
+		}
+
+		/**
+		 * @return factor * this or null if a coefficient leaves the range of ints
+		 */
+		Linear scale(long factor) {
+			Linear product = new Linear(apply(Expr.Kind.MULT, factor, constant));
+			for(Map.Entry<Integer, Long> e : coefficients.entrySet()) {
+				product.coefficients.put(e.getKey(), apply(Expr.Kind.MULT, factor, e.getValue()));
+			}
+			return product.isDefined() ? product : null;
+		}
+
+		private boolean isDefined() {
+			return constant != Expr.UNDEFINED && !coefficients.containsValue(Expr.UNDEFINED);
+		}
+
+		private static long apply(Expr.Kind kind, long left, long right) {
+			return left == Expr.UNDEFINED || right == Expr.UNDEFINED ? Expr.UNDEFINED : kind.apply(left, right);
+		}
+
+		Expr toExpr() {
+			List<Integer> slots = new ArrayList<>();
+			List<Long> factors = new ArrayList<>();
+			for(Map.Entry<Integer, Long> e : coefficients.entrySet()) {
+				//variables that cancel out are dropped
+				if(e.getValue() != 0) {
+					slots.add(e.getKey());
+					factors.add(e.getValue());
+				}
+			}
+			if(slots.isEmpty()) {
+				return Expr.constant((int) constant);
+			} else if(slots.size() == 1 && factors.get(0) == 1 && constant == 0) {
+				return Expr.variable(slots.get(0));
+			}
+			int[] s = new int[slots.size()];
+			int[] c = new int[slots.size()];
+			for(int i=0; i<s.length; ++i) {
+				s[i] = slots.get(i);
+				c[i] = (int) (long) factors.get(i);
+			}
+			return Expr.linear(c, s, (int) constant);
+		}
+	}
+
+	private final FrameLayout layout;
+
+	/**
+	 * @param layout
+	 * 						the layout resolving the variables of the rule to slots
+	 */
+	public RuleCompiler(FrameLayout layout) {
+		this.layout = layout;
+	}
+
+	public RuleCode compile(ARule rule) {
+		return new RuleCode(
+				compileConstraints(rule.getAsk()),
+				compileConstraints(rule.getTell()),
+				compileBody(rule.getBody()));
+	}
+
+	private Instruction[] compileConstraints(List<PExpr> constraints) {
+		List<Instruction> code = new ArrayList<>();
+		for(PExpr e : constraints) {
+			if(e instanceof AEqExpr) {
+				code.add(compileConstraint(Relation.EQ, ((AEqExpr) e).getVar(), ((AEqExpr) e).getExpr()));
+			} else if(e instanceof ANeqExpr) {
+				code.add(compileConstraint(Relation.NEQ, ((ANeqExpr) e).getVar(), ((ANeqExpr) e).getExpr()));
+			} else if(e instanceof ALtExpr) {
+				code.add(compileConstraint(Relation.LT, ((ALtExpr) e).getVar(), ((ALtExpr) e).getExpr()));
+			} else if(e instanceof AGtExpr) {
+				code.add(compileConstraint(Relation.GT, ((AGtExpr) e).getVar(), ((AGtExpr) e).getExpr()));
+			} else if(e instanceof ALeqExpr) {
+				code.add(compileConstraint(Relation.LEQ, ((ALeqExpr) e).getVar(), ((ALeqExpr) e).getExpr()));
+			} else if(e instanceof AGeqExpr) {
+				code.add(compileConstraint(Relation.GEQ, ((AGeqExpr) e).getVar(), ((AGeqExpr) e).getExpr()));
+			} else if(e instanceof AFalseExpr) {
+				code.add(Instruction.FAIL);
+			} else if(!(e instanceof ATrueExpr)) {
+				throw new AssertionError("unexpected ast node in constraint compilation: " + e);
+			}
+			//true needs no code
+		}
+		return code.toArray(new Instruction[code.size()]);
+	}
+
+	private Instruction compileConstraint(Relation relation, TIdent var, PExpr expr) {
+		int slot = slot(var);
+		if(expr instanceof AVarExpr && (relation == Relation.EQ || relation == Relation.NEQ)) {
+			//may compare lists as well as integers
+			return Instruction.compare(relation, slot, slot(((AVarExpr) expr).getName()));
+		} else if(expr instanceof AListExpr || expr instanceof AListConstructorExpr) {
+			return Instruction.match(relation, slot, compileTerm(expr));
+		}
+		List<Integer> operands = new ArrayList<>();
+		Expr rvalue = simplify(compileExpr(expr, operands));
+		int[] slots = new int[operands.size()];
+		for(int i=0; i<slots.length; ++i) {
+			slots[i] = operands.get(i);
+		}
+		return Instruction.constrain(relation, slot, rvalue, slots);
+	}
+
+	private Instruction[] compileBody(List<PExpr> body) {
+		Instruction[] code = new Instruction[body.size()];
+		int i = 0;
+		for(PExpr e : body) {
+			if(!(e instanceof APredCallExpr)) {
+				throw new AssertionError("unexpected ast node in body compilation: " + e);
+			}
+			APredCallExpr call = (APredCallExpr) e;
+			Term[] args = new Term[call.getArgs().size()];
+			int j = 0;
+			for(PExpr arg : call.getArgs()) {
+				args[j++] = compileTerm(arg);
+			}
+			code[i++] = Instruction.spawn(call.getName().getText(), args);
+		}
+		return code;
+	}
+
+	private Term compileTerm(PExpr expr) {
+		if(expr instanceof ANumberExpr) {
+			return Term.number(Integer.parseInt(((ANumberExpr) expr).getValue().getText()));
+		} else if(expr instanceof AVarExpr) {
+			return Term.variable(slot(((AVarExpr) expr).getName()));
+		} else if(expr instanceof AWildcardExpr) {
+			return Term.WILDCARD;
+		} else if(expr instanceof AListExpr) {
+			return Term.list(compileTerms(((AListExpr) expr).getElements()), null);
+		} else if(expr instanceof AListConstructorExpr) {
+			AListConstructorExpr list = (AListConstructorExpr) expr;
+			return Term.list(compileTerms(list.getHead()), compileTerm(list.getTail()));
+		}
+		throw new AssertionError("unexpected ast node in term compilation: " + expr);
+	}
+
+	private Term[] compileTerms(List<PExpr> exprs) {
+		Term[] terms = new Term[exprs.size()];
+		int i = 0;
+		for(PExpr e : exprs) {
+			terms[i++] = compileTerm(e);
+		}
+		return terms;
+	}
+
+	/**
+	 * @param operands
+	 * 						receives the slots of all variables of the expression
+	 */
+	private Expr compileExpr(PExpr expr, List<Integer> operands) {
+		if(expr instanceof ANumberExpr) {
+			return Expr.constant(Integer.parseInt(((ANumberExpr) expr).getValue().getText()));
+		} else if(expr instanceof AVarExpr) {
+			int slot = slot(((AVarExpr) expr).getName());
+			operands.add(slot);
+			return Expr.variable(slot);
+		} else if(expr instanceof APlusExpr) {
+			APlusExpr e = (APlusExpr) expr;
+			return Expr.binary(Expr.Kind.PLUS, compileExpr(e.getLeft(), operands), compileExpr(e.getRight(), operands));
+		} else if(expr instanceof AMinusExpr) {
+			AMinusExpr e = (AMinusExpr) expr;
+			return Expr.binary(Expr.Kind.MINUS, compileExpr(e.getLeft(), operands), compileExpr(e.getRight(), operands));
+		} else if(expr instanceof AMultExpr) {
+			AMultExpr e = (AMultExpr) expr;
+			return Expr.binary(Expr.Kind.MULT, compileExpr(e.getLeft(), operands), compileExpr(e.getRight(), operands));
+		} else if(expr instanceof ADivExpr) {
+			ADivExpr e = (ADivExpr) expr;
+			return Expr.binary(Expr.Kind.DIV, compileExpr(e.getLeft(), operands), compileExpr(e.getRight(), operands));
+		} else if(expr instanceof AModExpr) {
+			AModExpr e = (AModExpr) expr;
+			return Expr.binary(Expr.Kind.MOD, compileExpr(e.getLeft(), operands), compileExpr(e.getRight(), operands));
+		}
+		throw new AssertionError("unexpected ast node in expression compilation: " + expr);
+	}
+
+	/**
+	 * folds constant subexpressions and turns linear subexpressions into
+	 * scalar form; operations undefined on ints are left to the solver
+	 */
+	private static Expr simplify(Expr expr) {
+		Linear linear = linearize(expr);
+		if(linear != null) {
+			return linear.toExpr();
+		} else if(expr.kind == Expr.Kind.CONSTANT || expr.kind == Expr.Kind.VARIABLE) {
+			return expr;
+		}
+		Expr left = simplify(expr.left);
+		Expr right = simplify(expr.right);
+		if(left.kind == Expr.Kind.CONSTANT && right.kind == Expr.Kind.CONSTANT) {
+			long n = expr.kind.apply(left.value, right.value);
+			if(n != Expr.UNDEFINED) {
+				return Expr.constant((int) n);
+			}
+		}
+		return Expr.binary(expr.kind, left, right);
+	}
+
+	/**
+	 * @return the expression as linear combination of its variables, null if
+	 * 			it is not linear or not defined on ints
+	 */
+	private static Linear linearize(Expr expr) {
+		switch(expr.kind) {
+		case CONSTANT:
+			return new Linear(expr.value);
+		case VARIABLE: {
+			Linear linear = new Linear(0);
+			linear.coefficients.put(expr.value, 1L);
+			return linear;
+		}
+		default:
+			break;
+		}
+		Linear left = linearize(expr.left);
+		Linear right = left == null ? null : linearize(expr.right);
+		if(right == null) {
+			return null;
+		}
+		switch(expr.kind) {
+		case PLUS:
+			return left.add(right, 1);
+		case MINUS:
+			return left.add(right, -1);
+		case MULT:
+			if(left.isConstant()) {
+				return right.scale(left.constant);
+			} else if(right.isConstant()) {
+				return left.scale(right.constant);
+			}
+			return null;
+		case DIV:
+		case MOD:
+			if(left.isConstant() && right.isConstant()) {
+				long n = expr.kind.apply(left.constant, right.constant);
+				return n == Expr.UNDEFINED ? null : new Linear(n);
+			}
+			return null;
+		default:
+			throw new AssertionError("unexpected expression in linearization: " + expr);
+		}
+	}
+
+	private int slot(TIdent var) {
+		int slot = layout.getSlot(var);
+		if(slot < 0) {
+			throw new AssertionError("unresolved variable " + var.getText());
+		}
+		return slot;
+	}
+}
@@ -0,0 +1,89 @@
+package interpreter.code;
+
+/**
+ * An element of a list pattern or an argument of a predicate call, with
+ * numbers decoded and variables resolved to their slots.
+ */
+final class Term {
+
+	enum Kind {
+		NUMBER,
+		VARIABLE,
+		WILDCARD,
+		LIST
+	}
+
+	static final Term WILDCARD = new Term(Kind.WILDCARD, 0, null, null, null);
+
+	final Kind kind;
+
+	/**
+	 * the number or the slot of the variable
+	 */
+	final int value;
+
+	/**
+	 * the elements of a list
+	 */
+	final Term[] elements;
+
+	/**
+	 * the tail of a list [...|tail], null if the list is closed
+	 */
+	final Term tail;
+
+	/**
+	 * the numbers the elements of a list start with, they are stored
+	 * compactly when the list is built; the array is never changed
+	 */
+	final int[] numbers;
+
+	private Term(Kind kind, int value, Term[] elements, Term tail, int[] numbers) {
+		this.kind = kind;
+		this.value = value;
+		this.elements = elements;
+		this.tail = tail;
+		this.numbers = numbers;
+	}
+
+	static Term number(int n) {
+		return new Term(Kind.NUMBER, n, null, null, null);
+	}
+
+	static Term variable(int slot) {
+		return new Term(Kind.VARIABLE, slot, null, null, null);
+	}
+
+	static Term list(Term[] elements, Term tail) {
+		int count = 0;
+		while(count < elements.length && elements[count].kind == Kind.NUMBER) {
+			++count;
+		}
+		int[] numbers = new int[count];
+		for(int i=0; i<count; ++i) {
+			numbers[i] = elements[i].value;
+		}
+		return new Term(Kind.LIST, 0, elements, tail, numbers);
+	}
+
+	@Override
+	public String toString() {
+		switch(kind) {
+		case NUMBER:
+			return "" + value;
+		case VARIABLE:
+			return "$" + value;
+		case WILDCARD:
+			return "_";
+		default:
+			StringBuilder s = new StringBuilder("[");
+			for(int i=0; i<elements.length; ++i) {
+				s.append(i > 0 ? ", " : "").append(elements[i]);
+			}
+			if(tail != null) {
+				s.append("|").append(tail);
+			}
+			return s.append("]").toString();
+		}
+	}
+}
@@ -8,6 +8,10 @@ package interpreter.data;
  * ChocoStore.java
  */
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
 import choco.Choco;
 import choco.cp.model.CPModel;
 import choco.cp.solver.CPSolver;
@@ -18,25 +22,69 @@ import choco.kernel.model.variables.integer.IntegerVariable;
 import choco.kernel.solver.ContradictionException;
 import choco.kernel.solver.Solver;
 import choco.kernel.solver.variables.integer.IntDomainVar;
-import choco.kernel.solver.variables.integer.IntVar;
 
 /**
  * @author Peter Sauer
  * 
  *         created: 11.01.2013
+ * 
+ *         The reference implementation of the constraint store. Each operation
+ *         clears the solver and reads the whole model again, which keeps it
+ *         simple and obviously correct. It is the default store of the
+ *         interpreter; {@link IncrementalChocoStore} and
+ *         {@link PartitionedChocoStore} keep live solvers instead and can be
+ *         chosen explicitly.
  */
 public class ChocoStore {
 
+	/**
+	 * The possible answers of the store to an asked constraint.
+	 */
+	public enum Entailment {
+		ENTAILED,
+		DISENTAILED,
+		UNKNOWN
+	}
+
+	/**
+	 * The stages an ask can be decided in, from the cheapest to the most
+	 * expensive one.
+	 */
+	public enum AskTier {
+		PROPAGATION,
+		SEARCH
+	}
+
 	/**
 	 * The model for the used Choco constraint solver.
 	 */
-	private Model model;
+	protected Model model;
 
 	/**
 	 * A reference to an instance of the Choco constraint solver.
 	 */
 	private Solver solver;
 
+	/**
+	 * The version of the store content, incremented by each successful tell.
+	 */
+	private long version;
+
+	/**
+	 * The most recent snapshot of the variable domains, may be outdated.
+	 */
+	private Valuation valuation;
+
+	/**
+	 * The tier that decided the most recent ask.
+	 */
+	private AskTier lastAskTier;
+
+	/**
+	 * The number of asks decided by each tier, indexed by ordinal.
+	 */
+	private final long[] askCounts;
+
 	/**
 	 * The main method holds some simple testing stuff.
 	 * 
@@ -119,6 +167,10 @@ public class ChocoStore {
 	public ChocoStore() {
 		model = new CPModel();
 		solver = new CPSolver();
+		version = 0;
+		valuation = null;
+		lastAskTier = null;
+		askCounts = new long[AskTier.values().length];
 	}
 
 	/**
@@ -141,6 +193,7 @@ public class ChocoStore {
 		solver.clear();
 		solver.read(model);
 		
+		countAsk(AskTier.SEARCH);
 		solved = solver.solve();
 
 		model.removeConstraint(c);
@@ -150,6 +203,60 @@ public class ChocoStore {
 		return !solved;
 	}
 
+	/**
+	 * Asks if the conjunction of the given constraints is entailed by the
+	 * current store content. The check stops at the first constraint that is
+	 * found not to be entailed.
+	 * 
+	 * @param constraints
+	 *            The conjuncts to test for entailment.
+	 * @return {@code true} if every constraint is entailed by the current store
+	 *         content, {@code false} otherwise.
+	 */
+	public synchronized boolean askAll(List<Constraint> constraints) {
+		for (Constraint c : constraints) {
+			if (!ask(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Asks for each of the given conjunctions if it is entailed by the current
+	 * store content, e.g. for the guards of all candidate rules of a literal.
+	 * 
+	 * @param guards
+	 *            The conjunctions to test for entailment.
+	 * @return An array holding the result of {@link #askAll(List)} for each
+	 *         conjunction, in the same order.
+	 */
+	public synchronized boolean[] askEach(List<List<Constraint>> guards) {
+		boolean[] result = new boolean[guards.size()];
+		int i = 0;
+		for (List<Constraint> guard : guards) {
+			result[i++] = askAll(guard);
+		}
+		return result;
+	}
+
+	/**
+	 * Decides whether the given constraint is entailed or disentailed by the
+	 * current store content, or if neither is the case yet.
+	 * 
+	 * @param aConstraint
+	 *            The constraint to test for entailment.
+	 * @return {@link Entailment#ENTAILED} if the constraint holds in every
+	 *         solution of the store, {@link Entailment#DISENTAILED} if it holds
+	 *         in none, {@link Entailment#UNKNOWN} otherwise.
+	 */
+	public synchronized Entailment entails(Constraint aConstraint) {
+		if (ask(aConstraint)) {
+			return Entailment.ENTAILED;
+		}
+		return isTellOk(aConstraint) ? Entailment.UNKNOWN : Entailment.DISENTAILED;
+	}
+
 	/**
 	 * Returns {@code True}, if a tell of the given constraint would be ok.
 	 * Returns {@code False}, if a tell of the given constraint would lead to an
@@ -194,12 +301,108 @@ public class ChocoStore {
 	public synchronized boolean tell(Constraint aConstraint) {
 		if (isTellOk(aConstraint)) {
 			model.addConstraint(aConstraint);
+			storeChanged();
 			return true;
 		} else {
 			return false;
 		}
 	}
 
+	/**
+	 * Adds the given constraints to the store without checking them. The
+	 * caller guarantees that their conjunction is consistent with the current
+	 * store content, e.g. by a previous call of {@link #isTellOk(Constraint)}
+	 * on the same store version.
+	 * 
+	 * @param constraints
+	 *            The constraints which should be added to the store.
+	 */
+	public synchronized void commit(List<Constraint> constraints) {
+		if (constraints.isEmpty()) {
+			return;
+		}
+		for (Constraint c : constraints) {
+			model.addConstraint(c);
+		}
+		storeChanged();
+	}
+
+	/**
+	 * Records the integer variables occurring in the given constraint, which
+	 * may then be asked or told any number of times. Stores splitting their
+	 * content use the scope to find the part the constraint belongs to instead
+	 * of extracting the variables from the constraint again; this store
+	 * ignores it.
+	 * 
+	 * @param aConstraint
+	 *            The constraint that will be asked or told.
+	 * @param variables
+	 *            The integer variables occurring in the constraint.
+	 */
+	public synchronized void scope(Constraint aConstraint, Collection<IntegerVariable> variables) {
+	}
+
+	/**
+	 * Records that the given constraint is the equation of two variables.
+	 * Stores keeping a substitution may tell it by replacing one variable by
+	 * the other, see {@link #getRepresentative(IntegerVariable)}, instead of
+	 * adding the constraint; this store adds it.
+	 * 
+	 * @param aConstraint
+	 *            The equation that will be asked or told.
+	 * @param var1
+	 *            The variable on the left-hand side.
+	 * @param var2
+	 *            The variable on the right-hand side.
+	 */
+	public synchronized void equate(Constraint aConstraint, IntegerVariable var1, IntegerVariable var2) {
+	}
+
+	/**
+	 * Returns the variable new constraints should refer to instead of the
+	 * given one, which has been substituted by it when an equation has been
+	 * told. This store never substitutes.
+	 * 
+	 * @param var
+	 *            The variable to look up.
+	 * @return The representative of the variable, the variable itself if it
+	 *         has not been substituted.
+	 */
+	public synchronized IntegerVariable getRepresentative(IntegerVariable var) {
+		return var;
+	}
+
+	/**
+	 * Returns {@code true} if constraints over the first group of variables
+	 * can never affect constraints over the second group, e.g. so that tells
+	 * over each group may be committed in any order. Without knowing more
+	 * about the store content, this is only the case if a group is empty.
+	 * 
+	 * @param variables1
+	 *            The first group of variables.
+	 * @param variables2
+	 *            The second group of variables.
+	 * @return {@code true} if the groups are known to be independent.
+	 */
+	public synchronized boolean isIndependent(Collection<IntegerVariable> variables1,
+			Collection<IntegerVariable> variables2) {
+		return variables1.isEmpty() || variables2.isEmpty();
+	}
+
+	/**
+	 * Drops constraints and variables that can no longer influence the
+	 * solutions of the given variables, e.g. those unreachable from the goal.
+	 * The solutions of the given variables stay the same. This store cannot
+	 * tell which constraints are independent of them and keeps everything.
+	 * 
+	 * @param reachable
+	 *            The variables that may still be asked or told about.
+	 * @return What has been dropped.
+	 */
+	public synchronized Garbage collect(Collection<IntegerVariable> reachable) {
+		return Garbage.NONE;
+	}
+
 	/**
 	 * Prints each variable with their name and current assignment.
 	 */
@@ -275,9 +478,18 @@ public class ChocoStore {
 			e.printStackTrace();
 		}
 
-		DisposableIterator<IntDomainVar> intVarIterator =
-				solver.getIntVarIterator();
+		return formatStatus(solver.getIntVarIterator());
+	}
 
+	/**
+	 * Writes each variable delivered by the given iterator with their name,
+	 * current assignment, and the current domain to a string.
+	 * 
+	 * @param intVarIterator
+	 *            The solver variables to write.
+	 * @return The formatted store status.
+	 */
+	protected String formatStatus(Iterator<IntDomainVar> intVarIterator) {
 		String s = "Store Status:\n";
 		s += "================================================================\n";
 		s += String.format("%16s%32s%16s", "Name", "Domain", "Value");
@@ -300,26 +512,105 @@ public class ChocoStore {
 	/**
 	 * Retrieve a value for the given variable.
 	 * 
+	 * @return The value of the variable if its domain is a single value after
+	 *         propagation, {@code null} otherwise.
 	 * @author Benny H�ckner
 	 * @data   12.02.2013
 	 */
 	public synchronized Integer getValueOfVar(IntegerVariable var) {
-	    solver.clear();
-	    solver.read(model);
-	    try {
-            solver.propagate();
-        } catch (ContradictionException e) {
-            e.printStackTrace();
-        }
-	    /*DisposableIterator<IntDomainVar> intVarIterator =
-                solver.getIntVarIterator();
-	    while (intVarIterator.hasNext()) {
-            IntDomainVar var = intVarIterator.next();
-            if (var.getName().equals(name)) {
-                return var.getVal();
-            }
-        }*/
-	    IntVar v = solver.getVar(var);
-	    return v == null ? null : v.getVal();
+		return getValuation().getValue(var);
+	}
+
+	/**
+	 * @return The version of the store content. Any successful tell yields a
+	 *         new version.
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns a snapshot of the bounds of all variables after propagation. The
+	 * snapshot is taken at most once per store version, so lookups between two
+	 * tells do not touch the solver.
+	 * 
+	 * @return The valuation of the current store version.
+	 */
+	public synchronized Valuation getValuation() {
+		if (valuation == null || valuation.getVersion() != version) {
+			valuation = createValuation();
+		}
+		return valuation;
+	}
+
+	/**
+	 * @return The tier that decided the most recent ask, or {@code null} if
+	 *         nothing was asked yet. This store always searches.
+	 */
+	public synchronized AskTier getLastAskTier() {
+		return lastAskTier;
+	}
+
+	/**
+	 * @param tier
+	 *            The tier to return the count of.
+	 * @return The number of asks the given tier has decided so far.
+	 */
+	public synchronized long getAskCount(AskTier tier) {
+		return askCounts[tier.ordinal()];
+	}
+
+	/**
+	 * Must be called for each decided ask, with the tier that decided it.
+	 */
+	protected void countAsk(AskTier tier) {
+		lastAskTier = tier;
+		++askCounts[tier.ordinal()];
+	}
+
+	/**
+	 * Adds asks decided elsewhere, e.g. by a part of this store that is
+	 * discarded, to the given tier.
+	 */
+	protected void countAsks(AskTier tier, long count) {
+		askCounts[tier.ordinal()] += count;
+	}
+
+	/**
+	 * Must be called after each change of the store content.
+	 */
+	protected void storeChanged() {
+		++version;
+	}
+
+	/**
+	 * Reads and propagates the whole model to take a new snapshot.
+	 */
+	protected Valuation createValuation() {
+		solver.clear();
+		solver.read(model);
+		try {
+			solver.propagate();
+		} catch (ContradictionException e) {
+			e.printStackTrace();
+		}
+		return snapshot(solver);
+	}
+
+	/**
+	 * Takes a snapshot of the bounds of all model variables known to the given
+	 * solver.
+	 */
+	protected Valuation snapshot(Solver aSolver) {
+		Valuation snapshot = new Valuation(version);
+		Iterator<IntegerVariable> it = model.getIntVarIterator();
+		while (it.hasNext()) {
+			IntegerVariable var = it.next();
+			IntDomainVar v = aSolver.getVar(var);
+			if (v != null) {
+				snapshot.put(var, v.getInf(), v.getSup());
+			}
+		}
+		return snapshot;
 	}
 }
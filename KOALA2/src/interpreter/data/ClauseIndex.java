@@ -0,0 +1,195 @@
+package interpreter.data;
+
+import interpreter.data.ParameterShape.Kind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups the closures of a single predicate by the shape of their first
+ * parameter. Looking up the candidates for a literal then only inspects the
+ * arguments of the literal and the shapes computed for each closure at load
+ * time; no closure is evaluated and the solver is not involved.
+ *
+ * All candidate lists keep the order of the closures in the program.
+ */
+public final class ClauseIndex {
+
+	private final List<Closure> closures;
+
+	/**
+	 * candidates for an uninitialized first argument
+	 */
+	private final List<Closure> unbound;
+
+	/**
+	 * candidates for a first argument that is an unbound list
+	 */
+	private final List<Closure> unboundList;
+
+	/**
+	 * candidates for a first argument that is the empty list
+	 */
+	private final List<Closure> emptyList;
+
+	/**
+	 * candidates for a first argument that is a non-empty list
+	 */
+	private final List<Closure> consList;
+
+	/**
+	 * candidates for an integer first argument of unknown value
+	 */
+	private final List<Closure> anyInteger;
+
+	/**
+	 * candidates for an integer first argument whose value is not a
+	 * key of {@link #byConstant}
+	 */
+	private final List<Closure> otherInteger;
+
+	/**
+	 * candidates for an integer first argument of known value
+	 */
+	private final Map<Integer, List<Closure>> byConstant;
+
+	public ClauseIndex(List<Closure> closures) {
+		this.closures = closures;
+		this.unbound = new ArrayList<>();
+		this.unboundList = new ArrayList<>();
+		this.emptyList = new ArrayList<>();
+		this.consList = new ArrayList<>();
+		this.anyInteger = new ArrayList<>();
+		this.otherInteger = new ArrayList<>();
+		this.byConstant = new HashMap<>();
+
+		Set<Integer> constants = new LinkedHashSet<>();
+		for(Closure c : closures) {
+			if(firstShape(c).getKind() == Kind.INT_CONSTANT) {
+				constants.add(firstShape(c).getConstant());
+			}
+		}
+		for(Integer n : constants) {
+			byConstant.put(n, new ArrayList<Closure>());
+		}
+
+		for(Closure c : closures) {
+			ParameterShape shape = firstShape(c);
+			switch(shape.getKind()) {
+			case ANY:
+			case BOUND:
+				//only rules not inspecting the argument apply to uninitialized ones
+				if(shape.getKind() == Kind.ANY) {
+					unbound.add(c);
+				}
+				unboundList.add(c);
+				emptyList.add(c);
+				consList.add(c);
+				anyInteger.add(c);
+				otherInteger.add(c);
+				for(List<Closure> l : byConstant.values()) {
+					l.add(c);
+				}
+				break;
+			case INTEGER:
+				anyInteger.add(c);
+				otherInteger.add(c);
+				for(List<Closure> l : byConstant.values()) {
+					l.add(c);
+				}
+				break;
+			case INT_CONSTANT:
+				anyInteger.add(c);
+				byConstant.get(shape.getConstant()).add(c);
+				break;
+			case LIST:
+				emptyList.add(c);
+				consList.add(c);
+				break;
+			case EMPTY_LIST:
+				emptyList.add(c);
+				break;
+			case CONS:
+				consList.add(c);
+				break;
+			}
+		}
+	}
+
+	public List<Closure> getClosures() {
+		return closures;
+	}
+
+	/**
+	 * @return all closures of this predicate that might be applicable to the
+	 * 			given literal, judging from the shapes of their parameters
+	 */
+	public List<Closure> getCandidates(Literal literal, ChocoStore store) {
+		List<Value> args = literal.getArgs();
+		if(args.isEmpty()) {
+			return closures;
+		}
+		List<Closure> bucket = getBucket(args.get(0), store);
+		if(bucket.isEmpty()) {
+			return bucket;
+		}
+
+		//check all parameters one by one, the bucket of an integer variable
+		//may still contain constants outside of its domain
+		List<Closure> candidates = new ArrayList<>(bucket.size());
+		for(Closure c : bucket) {
+			if(admits(c, args, store)) {
+				candidates.add(c);
+			}
+		}
+		return candidates;
+	}
+
+	private List<Closure> getBucket(Value arg, ChocoStore store) {
+		if(!arg.isInit()) {
+			return unbound;
+		} else if(arg.isInt()) {
+			return getIntegerBucket(arg.getInt().getValue());
+		} else if(arg.isIntVar()) {
+			Integer n = byConstant.isEmpty() ? null : store.getValueOfVar(arg.getIntVar());
+			return n == null ? anyInteger : getIntegerBucket(n);
+		} else if(arg.isListVar()) {
+			ListVariable list = arg.getListVar();
+			if(list.isUnbound()) {
+				return unboundList;
+			}
+			return list.isEmpty() ? emptyList : consList;
+		}
+		return Collections.emptyList();
+	}
+
+	private List<Closure> getIntegerBucket(int n) {
+		List<Closure> bucket = byConstant.get(n);
+		return bucket == null ? otherInteger : bucket;
+	}
+
+	private static boolean admits(Closure closure, List<Value> args, ChocoStore store) {
+		ParameterShape[] shapes = closure.getShapes();
+		for(int i=0; i<shapes.length; ++i) {
+			if(!shapes[i].admits(args.get(i), store)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static ParameterShape firstShape(Closure closure) {
+		ParameterShape[] shapes = closure.getShapes();
+		return shapes.length == 0 ? ParameterShape.ANY : shapes[0];
+	}
+
+	@Override
+	public String toString() {
+		return "ClauseIndex [closures=" + closures.size() + ", constants=" + byConstant.keySet() + "]";
+	}
+}
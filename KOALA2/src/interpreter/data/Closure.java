@@ -1,25 +1,55 @@
 package interpreter.data;
 
+import interpreter.code.RuleCode;
+
+import java.util.Arrays;
+
 import parser.node.AHead;
 import parser.node.ARule;
 
 public final class Closure {
-	private ARule rule;
-	private Environment environment;
-	public Closure(ARule rule, Environment environment) {
+	private final ARule rule;
+	private final FrameLayout layout;
+	private final ParameterShape[] shapes;
+	private final RuleCode code;
+	public Closure(ARule rule, FrameLayout layout, RuleCode code) {
+		this(rule, layout, null, code);
+	}
+	public Closure(ARule rule, FrameLayout layout, ParameterShape[] shapes, RuleCode code) {
 		super();
 		this.rule = rule;
-		this.environment = environment;
+		this.layout = layout;
+		if(shapes == null) {
+			shapes = new ParameterShape[((AHead)rule.getHead()).getParams().size()];
+			Arrays.fill(shapes, ParameterShape.ANY);
+		}
+		this.shapes = shapes;
+		this.code = code;
 	}
 	public ARule getRule() {
 		return rule;
 	}
-	public Environment getEnvironment() {
-		return environment;
+	/**
+	 * @return the layout of the activation frames of this rule
+	 */
+	public FrameLayout getLayout() {
+		return layout;
+	}
+	/**
+	 * @return the requirements of the ask of this rule on each of its parameters
+	 */
+	public ParameterShape[] getShapes() {
+		return shapes;
+	}
+	/**
+	 * @return the compiled rule run by the interpreter
+	 */
+	public RuleCode getCode() {
+		return code;
 	}
 	@Override
 	public String toString() {
 		String name = ((AHead)rule.getHead()).getName().getText();
-		return "Closure [rule=" + name + ", environment=" + environment + "]";
+		return "Closure [rule=" + name + ", layout=" + layout + "]";
 	}
-}
+}
\ No newline at end of file
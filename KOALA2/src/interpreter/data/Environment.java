@@ -1,32 +1,83 @@
 package interpreter.data;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+import parser.node.TIdent;
+
+/**
+ * An activation frame of a rule, holding the value of each variable in the
+ * slot assigned by the layout of the rule. Values are created on first
+ * access, so resetting a frame does not allocate.
+ */
 public final class Environment {
 
-	private Map<String, Value> table;
-	
-	public Environment() {
-		this.table = new HashMap<>();
+	private final FrameLayout layout;
+	private final Value[] values;
+
+	public Environment(FrameLayout layout) {
+		this.layout = layout;
+		this.values = new Value[layout.size()];
+	}
+
+	public FrameLayout getLayout() {
+		return layout;
+	}
+
+	public void put(int slot, Value value) {
+		values[slot] = value;
 	}
 
 	public void put(String key, Value value) {
-		table.put(key, value);
+		int slot = layout.getSlot(key);
+		if(slot < 0) {
+			throw new IllegalArgumentException("unknown variable " + key);
+		}
+		values[slot] = value;
 	}
-	
+
+	/**
+	 * @return the value in the given slot, a new uninitialized value
+	 * 			if the slot has not been accessed since the last reset
+	 */
+	public Value get(int slot) {
+		Value value = values[slot];
+		if(value == null) {
+			value = new Value(layout.getName(slot));
+			values[slot] = value;
+		}
+		return value;
+	}
+
+	/**
+	 * @return the value of the variable occurring at the given token
+	 */
+	public Value get(TIdent token) {
+		int slot = layout.getSlot(token);
+		return slot < 0 ? null : get(slot);
+	}
+
 	public Value get(String key) {
-		return table.get(key);
+		int slot = layout.getSlot(key);
+		return slot < 0 ? null : get(slot);
 	}
 
+	/**
+	 * replaces all values by uninitialized ones
+	 */
 	public void reset() {
-		for(Map.Entry<String, Value> e : table.entrySet()) {
-			e.setValue(new Value(e.getValue().getName()));
-		}
+		Arrays.fill(values, null);
 	}
 
 	@Override
 	public String toString() {
-		return "" + table + "";
+		StringBuilder s = new StringBuilder("{");
+		for(int i=0; i<values.length; ++i) {
+			if(i > 0) {
+				s.append(", ");
+			}
+			//slots not accessed since the last reset are uninitialized
+			s.append(layout.getName(i)).append("=").append(values[i] == null ? "-" : values[i]);
+		}
+		return s.append("}").toString();
 	}
 }
@@ -0,0 +1,73 @@
+package interpreter.data;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import parser.node.TIdent;
+
+/**
+ * Assigns a slot to each variable of a rule. The slots of the parameters
+ * come first and follow their order in the head of the rule, so that the
+ * i-th argument of a literal is bound to slot i.
+ *
+ * Each occurrence of a variable within the rule is resolved to its slot
+ * when the program is loaded, so evaluating the rule never needs to look
+ * up a variable by its name.
+ */
+public final class FrameLayout {
+
+	private final String[] names;
+	private final Map<String, Integer> slotsByName;
+	private final Map<TIdent, Integer> slotsByToken;
+
+	/**
+	 * @param names
+	 * 						the names of all variables by slot
+	 * @param slotsByToken
+	 * 						the slot of each occurrence of a variable in the rule
+	 */
+	public FrameLayout(List<String> names, IdentityHashMap<TIdent, Integer> slotsByToken) {
+		this.names = names.toArray(new String[names.size()]);
+		this.slotsByName = new HashMap<>();
+		for(int i=0; i<this.names.length; ++i) {
+			slotsByName.put(this.names[i], i);
+		}
+		this.slotsByToken = slotsByToken;
+	}
+
+	/**
+	 * @return the number of slots of a frame
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	public String getName(int slot) {
+		return names[slot];
+	}
+
+	/**
+	 * @return the slot of the variable occurring at the given token,
+	 * 			-1 if it is not a variable of the rule
+	 */
+	public int getSlot(TIdent token) {
+		Integer slot = slotsByToken.get(token);
+		return slot == null ? getSlot(token.getText()) : slot;
+	}
+
+	/**
+	 * @return the slot of the variable with the given name,
+	 * 			-1 if it is not a variable of the rule
+	 */
+	public int getSlot(String name) {
+		Integer slot = slotsByName.get(name);
+		return slot == null ? -1 : slot;
+	}
+
+	@Override
+	public String toString() {
+		return "FrameLayout " + slotsByName;
+	}
+}
@@ -0,0 +1,43 @@
+package interpreter.data;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps released activation frames for reuse, separately for each layout.
+ * A pool is not thread-safe and is meant to be owned by a single interpreter.
+ */
+public final class FramePool {
+
+	private final Map<FrameLayout, Deque<Environment>> frames;
+
+	public FramePool() {
+		this.frames = new IdentityHashMap<>();
+	}
+
+	/**
+	 * @return a frame of the given layout with all slots uninitialized
+	 */
+	public Environment acquire(FrameLayout layout) {
+		Deque<Environment> free = frames.get(layout);
+		if(free == null || free.isEmpty()) {
+			return new Environment(layout);
+		}
+		return free.pop();
+	}
+
+	/**
+	 * returns a frame that is no longer used to the pool
+	 */
+	public void release(Environment environment) {
+		environment.reset();
+		Deque<Environment> free = frames.get(environment.getLayout());
+		if(free == null) {
+			free = new ArrayDeque<>();
+			frames.put(environment.getLayout(), free);
+		}
+		free.push(environment);
+	}
+}
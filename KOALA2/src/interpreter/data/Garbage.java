@@ -0,0 +1,51 @@
+package interpreter.data;
+
+/**
+ * The parts of a constraint store dropped by a collection, see
+ * {@link ChocoStore#collect(java.util.Collection)}.
+ */
+public final class Garbage {
+
+	/**
+	 * Nothing collected.
+	 */
+	public static final Garbage NONE = new Garbage(0, 0, 0);
+
+	private final int components;
+	private final int constraints;
+	private final int variables;
+
+	public Garbage(int components, int constraints, int variables) {
+		this.components = components;
+		this.constraints = constraints;
+		this.variables = variables;
+	}
+
+	/**
+	 * @return The number of independent parts of the store dropped.
+	 */
+	public int getComponents() {
+		return components;
+	}
+
+	public int getConstraints() {
+		return constraints;
+	}
+
+	public int getVariables() {
+		return variables;
+	}
+
+	/**
+	 * @return The sum of this and the given collection, e.g. to keep a total.
+	 */
+	public Garbage plus(Garbage other) {
+		return new Garbage(components + other.components, constraints + other.constraints,
+				variables + other.variables);
+	}
+
+	@Override
+	public String toString() {
+		return components + " components, " + constraints + " constraints, " + variables + " variables";
+	}
+}
@@ -0,0 +1,276 @@
+package interpreter.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import choco.Choco;
+import choco.cp.solver.CPSolver;
+import choco.kernel.common.util.iterators.DisposableIterator;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.solver.ContradictionException;
+import choco.kernel.solver.constraints.SConstraint;
+import choco.kernel.solver.variables.integer.IntDomainVar;
+
+/**
+ * A constraint store that keeps a single live solver instead of reading the
+ * whole model for every operation.
+ *
+ * Permanent tells are posted to the live solver at its base world and
+ * propagated right away, so the domains of the base world always reflect the
+ * current store content. Asks and tell checks are run as probes: the solver
+ * pushes a new world, posts the probe constraint as a cut, searches and
+ * finally pops back to the base world, which removes the probe together with
+ * every domain reduction caused by it.
+ *
+ * Asks are decided in tiers: propagation alone is tried first, and the full
+ * refutation search only runs if propagation cannot settle the answer. The
+ * tier that answered the last ask, as well as the number of asks answered by
+ * each tier, can be queried for profiling.
+ *
+ * The model is still maintained alongside the solver, so the inherited
+ * reference behaviour of {@link ChocoStore} remains available for
+ * diagnostics.
+ */
+public class IncrementalChocoStore extends ChocoStore {
+
+	/**
+	 * The live solver holding every constraint told so far.
+	 */
+	private final CPSolver liveSolver;
+
+	/**
+	 * The world index every probe returns to.
+	 */
+	private final int baseWorld;
+
+	public IncrementalChocoStore() {
+		super();
+		liveSolver = new CPSolver();
+		liveSolver.read(model);
+		baseWorld = liveSolver.getWorldIndex();
+	}
+
+	@Override
+	public synchronized boolean ask(Constraint aConstraint) {
+		return decide(aConstraint, false) == Entailment.ENTAILED;
+	}
+
+	@Override
+	public synchronized boolean askAll(List<Constraint> constraints) {
+		// propagation settles most conjuncts one by one, all remaining ones
+		// are refuted together in a single search
+		List<Constraint> undecided = new ArrayList<>();
+		for (Constraint c : constraints) {
+			if (!propagates(Choco.not(c))) {
+				countAsk(AskTier.PROPAGATION);
+			} else if (!propagates(c)) {
+				countAsk(AskTier.PROPAGATION);
+				return false;
+			} else {
+				undecided.add(c);
+			}
+		}
+		if (undecided.isEmpty()) {
+			return true;
+		}
+		countAsk(AskTier.SEARCH);
+		Constraint conjunction = undecided.size() == 1 ? undecided.get(0)
+				: Choco.and(undecided.toArray(new Constraint[undecided.size()]));
+		return !probe(Choco.not(conjunction));
+	}
+
+	@Override
+	public synchronized Entailment entails(Constraint aConstraint) {
+		return decide(aConstraint, true);
+	}
+
+	@Override
+	public synchronized boolean isTellOk(Constraint aConstraint) {
+		return probe(aConstraint);
+	}
+
+	@Override
+	public synchronized boolean tell(Constraint aConstraint) {
+		if (isTellOk(aConstraint)) {
+			post(aConstraint);
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public synchronized void commit(List<Constraint> constraints) {
+		if (constraints.isEmpty()) {
+			return;
+		}
+		for (Constraint c : constraints) {
+			model.addConstraint(c);
+			liveSolver.addConstraint(c);
+		}
+		propagate();
+		storeChanged();
+	}
+
+	@Override
+	public synchronized String getStatus() {
+		return formatStatus(liveSolver.getIntVarIterator());
+	}
+
+	/**
+	 * Adds the variables of the live solver to the given list, e.g. to write
+	 * the status of several stores at once.
+	 *
+	 * @param intVars
+	 *            Receives the solver variables.
+	 */
+	synchronized void addIntVars(List<IntDomainVar> intVars) {
+		DisposableIterator<IntDomainVar> it = liveSolver.getIntVarIterator();
+		while (it.hasNext()) {
+			intVars.add(it.next());
+		}
+		it.dispose();
+	}
+
+	/**
+	 * The base world is always propagated, so a snapshot is taken without any
+	 * solver work.
+	 */
+	@Override
+	protected Valuation createValuation() {
+		return snapshot(liveSolver);
+	}
+
+	/**
+	 * Decides the entailment of the given constraint, using propagation first
+	 * and falling back to a full search only if propagation is inconclusive.
+	 *
+	 * @param aConstraint
+	 *            The constraint to test for entailment.
+	 * @param exact
+	 *            If {@code false}, the search tier stops as soon as entailment
+	 *            is refuted and reports {@link Entailment#UNKNOWN} without
+	 *            checking for disentailment.
+	 * @return The entailment of the constraint.
+	 */
+	private Entailment decide(Constraint aConstraint, boolean exact) {
+		Constraint negation = Choco.not(aConstraint);
+
+		// propagation alone proves entailment or disentailment
+		if (!propagates(negation)) {
+			countAsk(AskTier.PROPAGATION);
+			return Entailment.ENTAILED;
+		}
+		if (!propagates(aConstraint)) {
+			countAsk(AskTier.PROPAGATION);
+			return Entailment.DISENTAILED;
+		}
+
+		// the constraint is entailed, if there is no solution with the negative
+		// constraint
+		countAsk(AskTier.SEARCH);
+		if (!probe(negation)) {
+			return Entailment.ENTAILED;
+		}
+		if (exact && !probe(aConstraint)) {
+			return Entailment.DISENTAILED;
+		}
+		return Entailment.UNKNOWN;
+	}
+
+	/**
+	 * Propagates the store content together with the given constraint without
+	 * searching. The constraint and all domain reductions are discarded
+	 * afterwards.
+	 *
+	 * @param aConstraint
+	 *            The temporary constraint.
+	 * @return {@code false} if propagation proved the conjunction inconsistent,
+	 *         {@code true} if it might still have a solution.
+	 */
+	private boolean propagates(Constraint aConstraint) {
+		SConstraint<?> cut = makeCut(aConstraint);
+		liveSolver.worldPush();
+		try {
+			liveSolver.postCut(cut);
+			liveSolver.propagate();
+			return true;
+		} catch (ContradictionException e) {
+			// the events left over by the failed propagation belong to the probe
+			liveSolver.getPropagationEngine().flushEffects();
+			return false;
+		} finally {
+			liveSolver.worldPopUntil(baseWorld);
+		}
+	}
+
+	/**
+	 * Searches for a solution of the store content together with the given
+	 * constraint. The constraint and all effects of the search are discarded
+	 * afterwards.
+	 *
+	 * @param aConstraint
+	 *            The temporary constraint.
+	 * @return {@code true} if a solution exists.
+	 */
+	private boolean probe(Constraint aConstraint) {
+		SConstraint<?> cut = makeCut(aConstraint);
+		liveSolver.worldPush();
+		try {
+			liveSolver.postCut(cut);
+			return Boolean.TRUE.equals(liveSolver.solve());
+		} finally {
+			liveSolver.worldPopUntil(baseWorld);
+		}
+	}
+
+	/**
+	 * Creates the solver constraint of a probe, to be posted as a cut to the
+	 * world of the probe. {@code addConstraint} posts the solver constraint
+	 * statically, so it would stay active after popping back to the base world
+	 * and leak the probe into the store. A cut is stored in the world it is
+	 * posted in and is removed again by {@code worldPopUntil}.
+	 *
+	 * The solver constraint must be created at the base world: it creates the
+	 * solver variables of model variables the solver has not seen yet, and the
+	 * domains of variables created within a world are not restored when that
+	 * world is popped.
+	 *
+	 * @param aConstraint
+	 *            The temporary constraint.
+	 * @return The solver constraint to post.
+	 */
+	private SConstraint<?> makeCut(Constraint aConstraint) {
+		return liveSolver.makeSConstraint(aConstraint);
+	}
+
+	/**
+	 * Posts the given constraint permanently to the base world of the live
+	 * solver and propagates it.
+	 *
+	 * @param aConstraint
+	 *            The constraint to add to the store.
+	 */
+	private void post(Constraint aConstraint) {
+		model.addConstraint(aConstraint);
+		liveSolver.addConstraint(aConstraint);
+		propagate();
+		storeChanged();
+	}
+
+	/**
+	 * Propagates the constraints posted to the base world of the live solver.
+	 *
+	 * @throws IllegalStateException
+	 *             if propagation fails: the constraints passed a tell check, so
+	 *             the store and the solver disagree and the base world can no
+	 *             longer be trusted
+	 */
+	private void propagate() {
+		try {
+			liveSolver.propagate();
+		} catch (ContradictionException e) {
+			throw new IllegalStateException("the store became inconsistent by a checked tell", e);
+		}
+	}
+}
@@ -7,6 +7,12 @@
  */
 package interpreter.data;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import choco.kernel.model.variables.integer.IntegerConstantVariable;
+
 
 /**
  * @author Peter Sauer
@@ -17,10 +23,17 @@ package interpreter.data;
  */
 public class ListVariable {
 
+	/**
+	 * The maximum number of elements of a run of numbers stored in one array.
+	 * Longer runs are split, so lists that drop the numbers of a long run one
+	 * by one do not keep the whole run alive.
+	 */
+	public static final int SEGMENT_LENGTH = 1024;
+
 	/**
 	 * A list element can be unbound, which is indicated by this flag.
 	 */
-	private Boolean isUnbound;
+	private boolean isUnbound;
 	
 	/**
 	 * This flag determines if the list is an empty list.
@@ -39,6 +52,31 @@ public class ListVariable {
 	 */
 	private Value tail;
 
+	/**
+	 * A bound list may start with a run of numbers stored compactly:
+	 * {@code elements[offset..]} followed by the list in {@code rest}. Head
+	 * and tail of such a list are only created when they are asked for. The
+	 * array is never changed, the lists dropping numbers of the run share it.
+	 * {@code null} if the list does not start with a compact run.
+	 */
+	private int[] elements;
+	private int offset;
+	private Value rest;
+
+	/**
+	 * Processes waiting for this list to become bound, {@code null} if there
+	 * are none.
+	 */
+	private List<Suspension> suspensions;
+
+	/**
+	 * The list this one has been told equal to, {@code null} if it represents
+	 * itself. Lists told equal form a tree whose root holds the structure
+	 * shared by all of them. Volatile since workers of a parallel step read
+	 * the trees at once.
+	 */
+	private volatile ListVariable alias;
+
 	/**
 	 * Creates a new unbound list variable.
 	 * 
@@ -51,17 +89,55 @@ public class ListVariable {
 		isUnbound = true;
 		head = null;
 		tail = null;
+		suspensions = null;
+		alias = null;
+	}
+
+	/**
+	 * Creates a list starting with the numbers {@code elements[offset..]}.
+	 */
+	private ListVariable(int[] elements, int offset, Value rest) {
+		isUnbound = false;
+		isEmpty = false;
+		this.elements = elements;
+		this.offset = offset;
+		this.rest = rest;
+	}
+
+	/**
+	 * Creates a list of numbers stored in segments of at most
+	 * {@link #SEGMENT_LENGTH} elements.
+	 * 
+	 * @param numbers
+	 *            The numbers, at least one. The array is copied.
+	 * @param rest
+	 *            The list following the numbers.
+	 */
+	public static ListVariable ofInts(int[] numbers, Value rest) {
+		if (numbers.length == 0) {
+			throw new IllegalArgumentException("a run of numbers must not be empty");
+		}
+		//segments are linked from the end
+		int from = (numbers.length - 1) / SEGMENT_LENGTH * SEGMENT_LENGTH;
+		ListVariable list = new ListVariable(Arrays.copyOfRange(numbers, from, numbers.length), 0, rest);
+		while (from > 0) {
+			Value next = new Value("");
+			next.init(list);
+			from -= SEGMENT_LENGTH;
+			list = new ListVariable(Arrays.copyOfRange(numbers, from, from + SEGMENT_LENGTH), 0, next);
+		}
+		return list;
 	}
 
 	/**
 	 * @return Returns Choco.TRUE, if the list element is unbound.
 	 */
 	public boolean isUnbound() {
-		return isUnbound;
+		return getRepresentative().isUnbound;
 	}
 	
 	public boolean isBound() {
-		return !isUnbound;
+		return !isUnbound();
 	}
 
 	/**
@@ -69,10 +145,11 @@ public class ListVariable {
 	 *         empty list.
 	 */
 	public boolean isEmpty() {
-		if (isUnbound) {
+		ListVariable list = getRepresentative();
+		if (list.isUnbound) {
 			return false;
 		}
-		if (isEmpty) {
+		if (list.isEmpty) {
 			return true;
 		}
 		return false;
@@ -83,10 +160,11 @@ public class ListVariable {
 	 *         an empty list.
 	 */
 	public boolean isCons() {
-		if (isUnbound) {
+		ListVariable list = getRepresentative();
+		if (list.isUnbound) {
 			return false;
 		}
-		if (isEmpty) {
+		if (list.isEmpty) {
 			return false;
 		}
 		return true;
@@ -97,9 +175,17 @@ public class ListVariable {
 	 *         the list, otherwise null.
 	 */
 	public Value getHead() {
+		return getRepresentative().head();
+	}
+
+	private synchronized Value head() {
 		if (isUnbound || isEmpty) {
 			return null;
 		}
+		if (head == null && elements != null) {
+			head = new Value("");
+			head.init(new IntegerConstantVariable(elements[offset]));
+		}
 		return head;
 	}
 
@@ -107,42 +193,203 @@ public class ListVariable {
 	 * @return If the list is not an empty list, this method returns the tail of
 	 *         the list, otherwise null. The tail is a list variable again. If
 	 *         the tail doesn't exists, a new list variable will be created.
+	 *         Bound lists may be read by several threads at once.
 	 */
 	public Value getTail() {
+		return getRepresentative().tail();
+	}
+
+	private synchronized Value tail() {
 		if (isUnbound || isEmpty) {
 			return null;
 		}
 		if (tail == null) {
-			tail = new Value("");
-			tail.init(new ListVariable());
+			if (elements != null) {
+				tail = drop(1);
+			} else {
+				tail = new Value("");
+				tail.init(new ListVariable());
+			}
 		}
 		return tail;
 	}
+
+	/**
+	 * @return The number of numbers at the start of this list that are stored
+	 *         compactly. They can be read by {@link #getInt(int)} without
+	 *         creating list cells.
+	 */
+	public int getIntCount() {
+		ListVariable list = getRepresentative();
+		return list.elements == null ? 0 : list.elements.length - list.offset;
+	}
+
+	/**
+	 * @return The number at the given position of the compact run at the
+	 *         start of this list, see {@link #getIntCount()}.
+	 */
+	public int getInt(int i) {
+		ListVariable list = getRepresentative();
+		return list.elements[list.offset + i];
+	}
+
+	/**
+	 * @param n
+	 *            The number of numbers to drop, at least one and at most
+	 *            {@link #getIntCount()}.
+	 * @return The list following the first n numbers of the compact run at the
+	 *         start of this list.
+	 */
+	public Value dropInts(int n) {
+		ListVariable list = getRepresentative();
+		if (n < 1 || n > list.getIntCount()) {
+			throw new IndexOutOfBoundsException("cannot drop " + n + " of " + list.getIntCount() + " numbers");
+		}
+		return list.drop(n);
+	}
+
+	private Value drop(int n) {
+		if (offset + n == elements.length) {
+			return rest;
+		}
+		Value value = new Value("");
+		value.init(new ListVariable(elements, offset + n, rest));
+		return value;
+	}
 	
+	/**
+	 * Binds the list to a run of numbers followed by another list. Runs longer
+	 * than {@link #SEGMENT_LENGTH} are split.
+	 * 
+	 * @param numbers
+	 *            The numbers, at least one. The array is kept and must not be
+	 *            changed afterwards.
+	 * @param rest
+	 *            The list following the numbers.
+	 */
+	public void setInts(int[] numbers, Value rest) {
+		if (numbers.length == 0) {
+			throw new IllegalArgumentException("a run of numbers must not be empty");
+		}
+		if (numbers.length > SEGMENT_LENGTH) {
+			Value next = new Value("");
+			next.init(ofInts(Arrays.copyOfRange(numbers, SEGMENT_LENGTH, numbers.length), rest));
+			numbers = Arrays.copyOf(numbers, SEGMENT_LENGTH);
+			rest = next;
+		}
+		ListVariable list = getRepresentative();
+		list.isUnbound = false;
+		list.isEmpty = false;
+		list.elements = numbers;
+		list.offset = 0;
+		list.rest = rest;
+		list.wakeSuspensions();
+	}
+
 	public void setEmpty() {
-		this.isUnbound = false;
-		this.isEmpty = true;
+		ListVariable list = getRepresentative();
+		list.isUnbound = false;
+		list.isEmpty = true;
+		list.wakeSuspensions();
 	}
 	
 
     public void setHead(Value head) {
-        isUnbound = false;
-        isEmpty = false;
-        this.head = head;
+        ListVariable list = getRepresentative();
+        list.isUnbound = false;
+        list.isEmpty = false;
+        list.head = head;
+        list.wakeSuspensions();
     }
 	
 	/**
-	 * Sets the tail.
-	 * Gives us the possibility to link two different lists.
+	 * Sets the tail. The tail of a list starting with a compact run of
+	 * numbers is fixed.
 	 */
     public void setTail(Value tail) {
-	    this.tail = tail;
+        ListVariable list = getRepresentative();
+        if (list.elements != null) {
+            throw new IllegalStateException("the tail of a run of numbers cannot be changed");
+        }
+	    list.tail = tail;
+	}
+
+	/**
+	 * @return The list holding the structure of this one, the root of the
+	 *         lists told equal to it. The path to the root is halved: every
+	 *         list on it is linked to its grandparent, which is always an
+	 *         ancestor, so several threads may read and shorten the same tree
+	 *         without locking.
+	 */
+	public ListVariable getRepresentative() {
+		ListVariable list = this;
+		ListVariable parent = list.alias;
+		while (parent != null) {
+			ListVariable grandparent = parent.alias;
+			if (grandparent == null) {
+				return parent;
+			}
+			list.alias = grandparent;
+			list = grandparent;
+			parent = list.alias;
+		}
+		return list;
+	}
+
+	/**
+	 * Links two different lists: this list becomes an alias of the given one
+	 * and shares its structure from now on, whether it is bound or not. This
+	 * list must be unbound. Processes suspended on it move to the other list
+	 * or are woken if that one is bound.
+	 */
+	public void aliasTo(ListVariable other) {
+		ListVariable self = getRepresentative();
+		ListVariable root = other.getRepresentative();
+		if (self == root) {
+			return;
+		}
+		if (!self.isUnbound) {
+			throw new IllegalStateException("bound list cannot become an alias: " + this);
+		}
+		self.alias = root;
+		if (!root.isUnbound) {
+			self.wakeSuspensions();
+		} else if (self.suspensions != null) {
+			for (Suspension s : self.suspensions) {
+				root.suspend(s);
+			}
+			self.suspensions = null;
+		}
 	}
 
+	/**
+	 * Registers a process to be woken once this list gets bound.
+	 */
+	public void suspend(Suspension suspension) {
+		ListVariable list = getRepresentative();
+		if (list.suspensions == null) {
+			list.suspensions = new ArrayList<>();
+		}
+		list.suspensions.add(suspension);
+	}
+
+	private void wakeSuspensions() {
+		if (suspensions != null) {
+			List<Suspension> woken = suspensions;
+			suspensions = null;
+			for (Suspension s : woken) {
+				s.wake();
+			}
+		}
+	}
 
 	@Override
 	public String toString() {
-		return "List [isBound=" + !isUnbound + 
-			   ", head=" + head + ", tail=" + tail + "]";
+		ListVariable list = getRepresentative();
+		if (list.elements != null) {
+			return "List [isBound=true, ints=" + list.getIntCount() + ", rest=" + list.rest + "]";
+		}
+		return "List [isBound=" + !list.isUnbound + 
+			   ", head=" + list.head + ", tail=" + list.tail + "]";
 	}
 }
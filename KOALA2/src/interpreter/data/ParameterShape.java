@@ -0,0 +1,117 @@
+package interpreter.data;
+
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * Describes what the ask-constraints of a rule require from the argument
+ * bound to one of its parameters. A shape is a necessary condition only: an
+ * argument that is not admitted can never satisfy the ask of the rule, while an
+ * admitted argument still has to be checked by evaluating the ask.
+ */
+public final class ParameterShape {
+
+	public enum Kind {
+		/** the ask does not inspect the parameter */
+		ANY,
+		/** the parameter must be initialized */
+		BOUND,
+		/** the parameter must be an integer */
+		INTEGER,
+		/** the parameter must be equal to an integer constant */
+		INT_CONSTANT,
+		/** the parameter must be a bound list */
+		LIST,
+		/** the parameter must be the empty list */
+		EMPTY_LIST,
+		/** the parameter must be a non-empty list */
+		CONS
+	}
+
+	public static final ParameterShape ANY = new ParameterShape(Kind.ANY, 0);
+	public static final ParameterShape BOUND = new ParameterShape(Kind.BOUND, 0);
+	public static final ParameterShape INTEGER = new ParameterShape(Kind.INTEGER, 0);
+	public static final ParameterShape LIST = new ParameterShape(Kind.LIST, 0);
+	public static final ParameterShape EMPTY_LIST = new ParameterShape(Kind.EMPTY_LIST, 0);
+	public static final ParameterShape CONS = new ParameterShape(Kind.CONS, 0);
+
+	private final Kind kind;
+	private final int constant;
+
+	private ParameterShape(Kind kind, int constant) {
+		this.kind = kind;
+		this.constant = constant;
+	}
+
+	public static ParameterShape intConstant(int constant) {
+		return new ParameterShape(Kind.INT_CONSTANT, constant);
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the required value of a parameter of kind INT_CONSTANT
+	 */
+	public int getConstant() {
+		return constant;
+	}
+
+	/**
+	 * combines this shape with another requirement on the same parameter,
+	 * keeping the more specific one
+	 */
+	public ParameterShape refine(ParameterShape other) {
+		switch(kind) {
+		case ANY:
+			return other;
+		case BOUND:
+			return other.kind == Kind.ANY ? this : other;
+		case INTEGER:
+			return other.kind == Kind.INT_CONSTANT ? other : this;
+		case LIST:
+			return (other.kind == Kind.EMPTY_LIST || other.kind == Kind.CONS) ? other : this;
+		default:
+			return this;
+		}
+	}
+
+	/**
+	 * @return false if the given argument can never satisfy the requirement,
+	 * 			true if it might
+	 */
+	public boolean admits(Value arg, ChocoStore store) {
+		switch(kind) {
+		case ANY:
+			return true;
+		case BOUND:
+			return arg.isInit();
+		case INTEGER:
+			return arg.isIntVar();
+		case INT_CONSTANT:
+			if(arg.isInt()) {
+				return arg.getInt().getValue() == constant;
+			} else if(arg.isIntVar()) {
+				Valuation valuation = store.getValuation();
+				IntegerVariable var = store.getRepresentative(arg.getIntVar());
+				Integer inf = valuation.getLowerBound(var);
+				Integer sup = valuation.getUpperBound(var);
+				return inf == null || (inf <= constant && constant <= sup);
+			}
+			return false;
+		case LIST:
+			return arg.isListVar() && arg.getListVar().isBound();
+		case EMPTY_LIST:
+			return arg.isListVar() && arg.getListVar().isEmpty();
+		case CONS:
+			return arg.isListVar() && arg.getListVar().isCons();
+		default:
+			throw new AssertionError("unexpected parameter shape " + kind);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return kind == Kind.INT_CONSTANT ? kind + "(" + constant + ")" : kind.toString();
+	}
+}
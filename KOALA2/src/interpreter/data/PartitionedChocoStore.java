@@ -0,0 +1,648 @@
+package interpreter.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import choco.Choco;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.Variable;
+import choco.kernel.model.variables.integer.IntegerConstantVariable;
+import choco.kernel.model.variables.integer.IntegerVariable;
+import choco.kernel.solver.variables.integer.IntDomainVar;
+
+/**
+ * A constraint store split into components that do not share any variable.
+ * Every component keeps its own live solver, see
+ * {@link IncrementalChocoStore}, so an ask or tell check only propagates and
+ * searches the constraints over variables connected to the ones it
+ * mentions: as the store content is consistent, the other components cannot
+ * change the answer.
+ *
+ * The components are found by union-find over the integer variables of the
+ * told constraints. Telling a constraint over variables of several
+ * components merges them, the constraints of the smaller components are
+ * added to the solver of the largest one. An ask spanning several
+ * components merges them as well, which does not change the store content.
+ * A conjunction is split by component, and each component decides its
+ * conjuncts together.
+ *
+ * The variables of a constraint are taken from its scope, see
+ * {@link #scope(Constraint, Collection)}, or extracted from the constraint
+ * if it has none.
+ *
+ * The ask counts of the store add up those of all components, including the
+ * ones merged into others or dropped.
+ *
+ * Constraints over variables no constraint has been told about are decided
+ * by a temporary component, which is discarded right away, so that the
+ * solver variables it creates do not pile up.
+ *
+ * A component none of whose variables is reachable any more can be dropped
+ * as a whole, see {@link #collect(Collection)}: the store content is
+ * consistent, so the component only constrains its own variables and has
+ * solutions regardless of the remaining ones. Unreachable variables of a
+ * component that still holds reachable ones are not projected away.
+ *
+ * An equation between two variables, see
+ * {@link #equate(Constraint, IntegerVariable, IntegerVariable)}, is told by
+ * substituting one variable by the other, and new constraints refer to the
+ * representative only, see {@link #getRepresentative(IntegerVariable)}. A
+ * variable outside every component is replaced without adding the equation
+ * to a solver. The constraints of the components cannot be rewritten, so
+ * the equation of two variables that both occur in told constraints is
+ * added once to link them; equations between variables sharing their
+ * representative are dropped.
+ */
+public class PartitionedChocoStore extends ChocoStore {
+
+	/**
+	 * A part of the store content sharing no variable with any other part.
+	 * A component without variables is a temporary one, see
+	 * {@link PartitionedChocoStore#release(Component)}.
+	 */
+	private static final class Component {
+
+		private final IncrementalChocoStore store = new IncrementalChocoStore();
+
+		/**
+		 * The constraints told to this component, needed to merge it into
+		 * another one.
+		 */
+		private final List<Constraint> constraints = new ArrayList<>();
+
+		/**
+		 * The variables of the constraints told to this component.
+		 */
+		private final List<IntegerVariable> variables = new ArrayList<>();
+
+		/**
+		 * The component this one has been merged into, {@code null} while it
+		 * is in use.
+		 */
+		private Component mergedInto;
+
+		private synchronized void commit(List<Constraint> constraints) {
+			store.commit(constraints);
+			this.constraints.addAll(constraints);
+		}
+
+		/**
+		 * Commits to the given component or, if it has been merged meanwhile,
+		 * to the one it has been merged into. Holds the lock of one component
+		 * at a time.
+		 */
+		private static void commit(Component component, List<Constraint> constraints) {
+			while (true) {
+				Component next;
+				synchronized (component) {
+					if (component.mergedInto == null) {
+						component.commit(constraints);
+						return;
+					}
+					next = component.mergedInto;
+				}
+				component = next;
+			}
+		}
+	}
+
+	/**
+	 * The parent of each variable occurring in a told constraint, roots are
+	 * their own parents.
+	 */
+	private final Map<IntegerVariable, IntegerVariable> parents;
+
+	/**
+	 * The component of each root.
+	 */
+	private final Map<IntegerVariable, Component> components;
+
+	/**
+	 * The variables of the constraints given to
+	 * {@link #scope(Constraint, Collection)}, kept as long as the constraint
+	 * is in use.
+	 */
+	private final Map<Constraint, IntegerVariable[]> scopes;
+
+	/**
+	 * The variable each substituted variable has been replaced by, which may
+	 * have been substituted itself; representatives are not contained.
+	 */
+	private final Map<IntegerVariable, IntegerVariable> substitutes;
+
+	/**
+	 * The variables of the equations given to
+	 * {@link #equate(Constraint, IntegerVariable, IntegerVariable)}, kept as
+	 * long as the equation is in use.
+	 */
+	private final Map<Constraint, IntegerVariable[]> equations;
+
+	/**
+	 * The component that decided the most recent ask, {@code null} before.
+	 */
+	private Component lastAsked;
+
+	public PartitionedChocoStore() {
+		super();
+		parents = new HashMap<>();
+		components = new HashMap<>();
+		scopes = new WeakHashMap<>();
+		substitutes = new HashMap<>();
+		equations = new WeakHashMap<>();
+		lastAsked = null;
+	}
+
+	@Override
+	public synchronized void scope(Constraint aConstraint, Collection<IntegerVariable> variables) {
+		scopes.put(aConstraint, variables.toArray(new IntegerVariable[variables.size()]));
+	}
+
+	@Override
+	public synchronized void equate(Constraint aConstraint, IntegerVariable var1, IntegerVariable var2) {
+		equations.put(aConstraint, new IntegerVariable[] {var1, var2});
+	}
+
+	@Override
+	public synchronized IntegerVariable getRepresentative(IntegerVariable var) {
+		IntegerVariable representative = var;
+		IntegerVariable next = substitutes.get(representative);
+		while (next != null) {
+			representative = next;
+			next = substitutes.get(representative);
+		}
+		// path compression
+		while (var != representative) {
+			var = substitutes.put(var, representative);
+		}
+		return representative;
+	}
+
+	@Override
+	public synchronized boolean ask(Constraint aConstraint) {
+		lastAsked = find(aConstraint, false);
+		boolean entailed = lastAsked.store.ask(aConstraint);
+		release(lastAsked);
+		return entailed;
+	}
+
+	@Override
+	public synchronized boolean askAll(List<Constraint> constraints) {
+		for (Map.Entry<Component, List<Constraint>> part : partition(constraints, false).entrySet()) {
+			lastAsked = part.getKey();
+			boolean entailed = lastAsked.store.askAll(part.getValue());
+			release(lastAsked);
+			if (!entailed) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public synchronized boolean[] askEach(List<List<Constraint>> guards) {
+		boolean[] result = new boolean[guards.size()];
+		int i = 0;
+		for (List<Constraint> guard : guards) {
+			result[i++] = askAll(guard);
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized Entailment entails(Constraint aConstraint) {
+		lastAsked = find(aConstraint, false);
+		Entailment entailment = lastAsked.store.entails(aConstraint);
+		release(lastAsked);
+		return entailment;
+	}
+
+	@Override
+	public synchronized boolean isTellOk(Constraint aConstraint) {
+		Component component = find(aConstraint, false);
+		boolean ok = component.store.isTellOk(aConstraint);
+		release(component);
+		return ok;
+	}
+
+	@Override
+	public synchronized boolean tell(Constraint aConstraint) {
+		if (!isTellOk(aConstraint)) {
+			return false;
+		}
+		commit(Collections.singletonList(aConstraint));
+		return true;
+	}
+
+	/**
+	 * Only finding the components is serialized, the components themselves
+	 * are committed to under their own locks: reductions of a parallel step
+	 * that are independent, see
+	 * {@link #isIndependent(Collection, Collection)}, commit at once.
+	 */
+	@Override
+	public void commit(List<Constraint> constraints) {
+		if (constraints.isEmpty()) {
+			return;
+		}
+		Map<Component, List<Constraint>> parts;
+		synchronized (this) {
+			constraints = substitute(constraints);
+			parts = partition(constraints, true);
+			// constraints without variables are not kept by any component
+			Iterator<Component> it = parts.keySet().iterator();
+			while (it.hasNext()) {
+				if (it.next().variables.isEmpty()) {
+					it.remove();
+				}
+			}
+			for (Constraint c : constraints) {
+				model.addConstraint(c);
+			}
+		}
+		for (Map.Entry<Component, List<Constraint>> part : parts.entrySet()) {
+			Component.commit(part.getKey(), part.getValue());
+		}
+		synchronized (this) {
+			storeChanged();
+		}
+	}
+
+	/**
+	 * Variables are independent if they belong to different components, i.e.
+	 * telling constraints over each group never makes one depend on the other.
+	 */
+	@Override
+	public synchronized boolean isIndependent(Collection<IntegerVariable> variables1,
+			Collection<IntegerVariable> variables2) {
+		if (variables1.isEmpty() || variables2.isEmpty()) {
+			return true;
+		}
+		List<IntegerVariable> roots = new ArrayList<>(variables1.size());
+		for (IntegerVariable var : variables1) {
+			roots.add(root(getRepresentative(var)));
+		}
+		for (IntegerVariable var : variables2) {
+			if (roots.contains(root(getRepresentative(var)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Drops every component without any of the given variables. Components
+	 * holding reachable as well as unreachable variables are kept as they are,
+	 * since their constraints may relate the variables.
+	 */
+	@Override
+	public synchronized Garbage collect(Collection<IntegerVariable> reachable) {
+		Set<IntegerVariable> live = new HashSet<>();
+		for (IntegerVariable var : reachable) {
+			var = getRepresentative(var);
+			if (parents.containsKey(var)) {
+				live.add(root(var));
+			}
+		}
+		Set<IntegerVariable> dropped = new HashSet<>();
+		int componentCount = 0;
+		int constraintCount = 0;
+		int variableCount = 0;
+		Iterator<Map.Entry<IntegerVariable, Component>> it = components.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<IntegerVariable, Component> e = it.next();
+			if (live.contains(e.getKey())) {
+				continue;
+			}
+			Component component = e.getValue();
+			for (Constraint c : component.constraints) {
+				model.removeConstraint(c);
+			}
+			for (IntegerVariable var : component.variables) {
+				parents.remove(var);
+				model.remove(var);
+				dropped.add(var);
+			}
+			++componentCount;
+			constraintCount += component.constraints.size();
+			variableCount += component.variables.size();
+			retire(component);
+			it.remove();
+		}
+		// variables substituted by dropped ones are unreachable as well
+		Iterator<IntegerVariable> substituted = substitutes.keySet().iterator();
+		while (substituted.hasNext()) {
+			if (dropped.contains(getRepresentative(substituted.next()))) {
+				substituted.remove();
+			}
+		}
+		return new Garbage(componentCount, constraintCount, variableCount);
+	}
+
+	/**
+	 * @return The number of components of the store.
+	 */
+	public synchronized int getComponentCount() {
+		return components.size();
+	}
+
+	@Override
+	public synchronized AskTier getLastAskTier() {
+		return lastAsked != null ? lastAsked.store.getLastAskTier() : null;
+	}
+
+	@Override
+	public synchronized long getAskCount(AskTier tier) {
+		long count = super.getAskCount(tier);
+		for (Component c : components.values()) {
+			count += c.store.getAskCount(tier);
+		}
+		return count;
+	}
+
+	/**
+	 * A variable outside every component occurs in no told constraint, so
+	 * its value only depends on its initial domain. Substituted variables
+	 * take the value of their representative.
+	 */
+	@Override
+	public synchronized Integer getValueOfVar(IntegerVariable var) {
+		var = getRepresentative(var);
+		Valuation valuation = getValuation();
+		if (valuation.contains(var)) {
+			return valuation.getValue(var);
+		}
+		return var.getLowB() == var.getUppB() ? var.getLowB() : null;
+	}
+
+	/**
+	 * Writes the variables of all components, each component keeps its base
+	 * world propagated.
+	 */
+	@Override
+	public synchronized String getStatus() {
+		List<IntDomainVar> intVars = new ArrayList<>();
+		for (Component c : components.values()) {
+			c.store.addIntVars(intVars);
+		}
+		return formatStatus(intVars.iterator());
+	}
+
+	/**
+	 * Every component keeps its base world propagated, so the snapshot only
+	 * collects their bounds.
+	 */
+	@Override
+	protected Valuation createValuation() {
+		Valuation snapshot = new Valuation(getVersion());
+		for (Component c : components.values()) {
+			snapshot.putAll(c.store.getValuation());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Discards a component returned by {@link #find(Constraint, boolean)} if
+	 * it is a temporary one, which is not part of the store.
+	 */
+	private void release(Component component) {
+		if (component.variables.isEmpty()) {
+			retire(component);
+		}
+	}
+
+	/**
+	 * Keeps the ask counts of a component that is merged, dropped or
+	 * discarded.
+	 */
+	private void retire(Component component) {
+		for (AskTier tier : AskTier.values()) {
+			countAsks(tier, component.store.getAskCount(tier));
+		}
+	}
+
+	/**
+	 * @param create
+	 *            {@code true} to return a component the constraint can be told
+	 *            to, {@code false} if it is only asked
+	 * @return The component holding every constraint sharing a variable with
+	 *         the given constraint, a new temporary component if there is
+	 *         none and the constraint is only asked or has no variables.
+	 */
+	private Component find(Constraint aConstraint, boolean create) {
+		Component component = merge(scopeOf(aConstraint), create);
+		return component != null ? component : new Component();
+	}
+
+	/**
+	 * Replaces the equations among the given constraints by substitutions.
+	 * A variable outside every component is substituted by the other one,
+	 * which is only bounded by its initial domain. Otherwise the first
+	 * variable is substituted by the second one and the equation is kept to
+	 * link them. A constraint created before a variable it refers to has been
+	 * substituted without an equation gets linked to the representative.
+	 *
+	 * @return The constraints to tell instead of the given ones.
+	 */
+	private List<Constraint> substitute(List<Constraint> constraints) {
+		List<Constraint> result = new ArrayList<>(constraints.size());
+		for (Constraint c : constraints) {
+			IntegerVariable[] equation = equations.get(c);
+			if (equation == null) {
+				result.add(c);
+				continue;
+			}
+			IntegerVariable var1 = getRepresentative(equation[0]);
+			IntegerVariable var2 = getRepresentative(equation[1]);
+			if (var1 == var2) {
+				continue;
+			} else if (!parents.containsKey(var1)) {
+				substitute(var1, var2, result);
+			} else if (!parents.containsKey(var2)) {
+				substitute(var2, var1, result);
+			} else {
+				substitutes.put(var1, var2);
+				result.add(c);
+			}
+		}
+		int size = result.size();
+		List<IntegerVariable> linked = new ArrayList<>();
+		for (int i = 0; i < size; ++i) {
+			for (IntegerVariable var : scopeOf(result.get(i))) {
+				if (substitutes.containsKey(var) && !parents.containsKey(var) && !linked.contains(var)) {
+					linked.add(var);
+					result.add(Choco.eq(var, getRepresentative(var)));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Substitutes a variable outside every component by the given one, which
+	 * takes over the bounds of its initial domain.
+	 *
+	 * @param constraints
+	 *            Receives the bounds to tell about the representative.
+	 */
+	private void substitute(IntegerVariable var, IntegerVariable representative, List<Constraint> constraints) {
+		substitutes.put(var, representative);
+		if (var.getLowB() > representative.getLowB()) {
+			constraints.add(Choco.geq(representative, var.getLowB()));
+		}
+		if (var.getUppB() < representative.getUppB()) {
+			constraints.add(Choco.leq(representative, var.getUppB()));
+		}
+	}
+
+	/**
+	 * @return The integer variables of the given constraint, taken from its
+	 *         scope if it has one.
+	 */
+	private List<IntegerVariable> scopeOf(Constraint aConstraint) {
+		IntegerVariable[] scope = scopes.get(aConstraint);
+		return scope != null ? Arrays.asList(scope) : variablesOf(aConstraint);
+	}
+
+	/**
+	 * Splits the given constraints by the component they belong to. All
+	 * components a constraint spans are merged before the split, so that
+	 * every part refers to a component that is still in use.
+	 *
+	 * @param create
+	 *            {@code true} if the constraints are going to be told,
+	 *            {@code false} if they are only asked
+	 * @return The constraints of each component, in their given order.
+	 */
+	private Map<Component, List<Constraint>> partition(List<Constraint> constraints, boolean create) {
+		for (Constraint c : constraints) {
+			merge(scopeOf(c), create);
+		}
+		Map<Component, List<Constraint>> parts = new LinkedHashMap<>();
+		for (Constraint c : constraints) {
+			Component component = find(c, false);
+			List<Constraint> part = parts.get(component);
+			if (part == null) {
+				part = new ArrayList<>();
+				parts.put(component, part);
+			}
+			part.add(c);
+		}
+		return parts;
+	}
+
+	/**
+	 * @return The integer variables occurring in the given constraint,
+	 *         without constants.
+	 */
+	private static List<IntegerVariable> variablesOf(Constraint aConstraint) {
+		List<IntegerVariable> variables = new ArrayList<>();
+		addVariables(aConstraint.getVariableIterator(), variables);
+		return variables;
+	}
+
+	private static void addVariables(Iterator<Variable> it, List<IntegerVariable> variables) {
+		while (it.hasNext()) {
+			Variable var = it.next();
+			if (var instanceof IntegerConstantVariable) {
+				continue;
+			} else if (var instanceof IntegerVariable) {
+				if (!variables.contains(var)) {
+					variables.add((IntegerVariable) var);
+				}
+			} else {
+				// an expression over further variables
+				addVariables(var.getVariableIterator(), variables);
+			}
+		}
+	}
+
+	/**
+	 * Merges the components of the given variables into one; variables
+	 * without a component join it.
+	 *
+	 * @param create
+	 *            {@code true} to create a component if none of the variables
+	 *            has one, {@code false} to leave variables without component
+	 *            alone
+	 * @return The merged component, {@code null} if none of the variables
+	 *         has a component and none has been created.
+	 */
+	private Component merge(List<IntegerVariable> variables, boolean create) {
+		IntegerVariable target = null;
+		List<IntegerVariable> roots = new ArrayList<>();
+		for (IntegerVariable var : variables) {
+			IntegerVariable root = root(var);
+			if (components.containsKey(root) && !roots.contains(root)) {
+				roots.add(root);
+				if (target == null || components.get(root).constraints.size() > components.get(target).constraints.size()) {
+					target = root;
+				}
+			}
+		}
+		if (target == null) {
+			if (!create || variables.isEmpty()) {
+				return null;
+			}
+			target = variables.get(0);
+			Component component = new Component();
+			component.variables.add(target);
+			parents.put(target, target);
+			components.put(target, component);
+		}
+		Component component = components.get(target);
+		for (IntegerVariable root : roots) {
+			if (root != target) {
+				Component merged = components.remove(root);
+				retire(merged);
+				synchronized (merged) {
+					merged.mergedInto = component;
+					component.commit(merged.constraints);
+				}
+				component.variables.addAll(merged.variables);
+				parents.put(root, target);
+			}
+		}
+		if (create) {
+			for (IntegerVariable var : variables) {
+				if (!parents.containsKey(var)) {
+					parents.put(var, target);
+					component.variables.add(var);
+				}
+			}
+		}
+		return component;
+	}
+
+	/**
+	 * @return The root of the given variable, the variable itself if it does
+	 *         not occur in a told constraint.
+	 */
+	private IntegerVariable root(IntegerVariable var) {
+		IntegerVariable root = var;
+		IntegerVariable parent = parents.get(root);
+		while (parent != null && parent != root) {
+			root = parent;
+			parent = parents.get(root);
+		}
+		// path compression
+		while (var != root) {
+			IntegerVariable next = parents.get(var);
+			if (next == null) {
+				break;
+			}
+			parents.put(var, root);
+			var = next;
+		}
+		return root;
+	}
+}
@@ -0,0 +1,77 @@
+package interpreter.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A loaded and checked program. The image is immutable: evaluating a rule
+ * never modifies it, every activation of a rule works on a frame of its
+ * own. One program can therefore be shared by any number of interpreters,
+ * also running concurrently.
+ */
+public final class Program {
+
+	/**
+	 * the closures of each predicate, keyed by name/arity
+	 */
+	private final Map<String, List<Closure>> closures;
+
+	/**
+	 * the clause index of each predicate, keyed by name/arity
+	 */
+	private final Map<String, ClauseIndex> indexes;
+
+	/**
+	 * creates an empty program
+	 */
+	public Program() {
+		this(Collections.<String, List<Closure>>emptyMap());
+	}
+
+	public Program(Map<String, List<Closure>> closures) {
+		Map<String, List<Closure>> copy = new HashMap<>();
+		Map<String, ClauseIndex> indexes = new HashMap<>();
+		for(Map.Entry<String, List<Closure>> e : closures.entrySet()) {
+			List<Closure> predicate = Collections.unmodifiableList(new ArrayList<>(e.getValue()));
+			copy.put(e.getKey(), predicate);
+			indexes.put(e.getKey(), new ClauseIndex(predicate));
+		}
+		this.closures = Collections.unmodifiableMap(copy);
+		this.indexes = indexes;
+	}
+
+	public boolean isEmpty() {
+		return closures.isEmpty();
+	}
+
+	/**
+	 * @return the closures of all predicates, keyed by name/arity
+	 */
+	public Map<String, List<Closure>> getClosures() {
+		return closures;
+	}
+
+	/**
+	 * @param predicate
+	 * 						name/arity of a predicate
+	 * @return the closures of the predicate in program order
+	 */
+	public List<Closure> getClosures(String predicate) {
+		return closures.get(predicate);
+	}
+
+	/**
+	 * @return the index over all closures of the predicate of the given literal
+	 */
+	public ClauseIndex getClauseIndex(Literal literal) {
+		return indexes.get(literal.getName() + "/" + literal.getArgs().size());
+	}
+
+	@Override
+	public String toString() {
+		return "Program " + closures.keySet();
+	}
+}
@@ -0,0 +1,9 @@
+package interpreter.data;
+
+/**
+ * A process waiting for a variable to become bound. Variables notify all
+ * suspensions registered with them once they get bound.
+ */
+public interface Suspension {
+	void wake();
+}
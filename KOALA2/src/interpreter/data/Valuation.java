@@ -0,0 +1,88 @@
+package interpreter.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * An immutable snapshot of the domain bounds of all store variables after
+ * propagation. A snapshot belongs to a single version of its store and is
+ * replaced by the store as soon as a tell changes the store content.
+ */
+public final class Valuation {
+
+	/**
+	 * The store version this snapshot was taken from.
+	 */
+	private final long version;
+
+	/**
+	 * The lower and upper bound of each variable.
+	 */
+	private final Map<IntegerVariable, int[]> bounds;
+
+	public Valuation(long version) {
+		this.version = version;
+		this.bounds = new HashMap<>();
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Records the bounds of a variable. Only used by the store while taking the
+	 * snapshot.
+	 */
+	void put(IntegerVariable var, int inf, int sup) {
+		bounds.put(var, new int[] { inf, sup });
+	}
+
+	/**
+	 * Records the bounds of all variables of another snapshot. Only used by
+	 * the store while taking the snapshot.
+	 */
+	void putAll(Valuation other) {
+		bounds.putAll(other.bounds);
+	}
+
+	/**
+	 * @return {@code true} if the store knows the given variable.
+	 */
+	public boolean contains(IntegerVariable var) {
+		return bounds.containsKey(var);
+	}
+
+	/**
+	 * @return The value of the given variable if its domain is a single value,
+	 *         {@code null} otherwise.
+	 */
+	public Integer getValue(IntegerVariable var) {
+		int[] b = bounds.get(var);
+		return (b == null || b[0] != b[1]) ? null : b[0];
+	}
+
+	/**
+	 * @return The lower bound of the given variable or {@code null} if the
+	 *         store does not know the variable.
+	 */
+	public Integer getLowerBound(IntegerVariable var) {
+		int[] b = bounds.get(var);
+		return b == null ? null : b[0];
+	}
+
+	/**
+	 * @return The upper bound of the given variable or {@code null} if the
+	 *         store does not know the variable.
+	 */
+	public Integer getUpperBound(IntegerVariable var) {
+		int[] b = bounds.get(var);
+		return b == null ? null : b[1];
+	}
+
+	@Override
+	public String toString() {
+		return "Valuation [version=" + version + ", size=" + bounds.size() + "]";
+	}
+}
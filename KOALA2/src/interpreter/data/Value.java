@@ -1,5 +1,8 @@
 package interpreter.data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import choco.kernel.model.variables.integer.IntegerConstantVariable;
 import choco.kernel.model.variables.integer.IntegerVariable;
 import util.Just;
@@ -11,10 +14,20 @@ public final class Value {
 
 	private String name;
 	private Maybe<Object> value;
+	private List<Suspension> suspensions;
+
+	/**
+	 * the value this one has been told equal to, null if it represents itself;
+	 * values told equal form a tree whose root holds the content shared by all;
+	 * volatile since workers of a parallel step read the trees at once
+	 */
+	private volatile Value alias;
 	
 	public Value(String name) {
 		this.name = name;
 		value = NOTHING;
+		suspensions = null;
+		alias = null;
 	}
 
 	public String getName() {
@@ -22,47 +35,122 @@ public final class Value {
 	}
 	
 	public boolean isInit() {
-		return value.hasValue();
+		return getRepresentative().value.hasValue();
 	}
 	
 	public boolean isInt() {
-		return isInit() && value.getValue() instanceof IntegerConstantVariable;
+		return isInit() && getRepresentative().value.getValue() instanceof IntegerConstantVariable;
 	}
 	
 	public boolean isIntVar() {
-		return isInit() && value.getValue() instanceof IntegerVariable;
+		return isInit() && getRepresentative().value.getValue() instanceof IntegerVariable;
 	}
 	
 	public boolean isListVar() {
-		return isInit() && value.getValue() instanceof ListVariable;
+		return isInit() && getRepresentative().value.getValue() instanceof ListVariable;
 	}
 	
 	public IntegerConstantVariable getInt() {
-		return isInit() ? (IntegerConstantVariable)value.getValue() : null;
+		return isInit() ? (IntegerConstantVariable)getRepresentative().value.getValue() : null;
 	}
 	
 	public IntegerVariable getIntVar() {
-		return isInit() ? (IntegerVariable)value.getValue() : null;
+		return isInit() ? (IntegerVariable)getRepresentative().value.getValue() : null;
 	}
 	
 	public ListVariable getListVar() {
-		return isInit() ? (ListVariable)value.getValue() : null;
+		return isInit() ? (ListVariable)getRepresentative().value.getValue() : null;
 	}
 	
 	public void init(IntegerConstantVariable integer) {
-		value = new Just<>((Object)integer);
+		getRepresentative().set(integer);
 	}
 	
 	public void init(IntegerVariable variable) {
-		value = new Just<>((Object)variable);
+		getRepresentative().set(variable);
 	}
 	
 	public void init(ListVariable list) {
-		value = new Just<>((Object)list);
+		getRepresentative().set(list);
+	}
+
+	private void set(Object content) {
+		value = new Just<>(content);
+		wakeSuspensions();
+	}
+
+	/**
+	 * @return the value holding the content of this one, the root of the
+	 * 			values told equal to it; the path to the root is halved, every
+	 * 			value on it is linked to its grandparent. That link is always
+	 * 			an ancestor of the value, so several threads may read and
+	 * 			shorten the same tree without locking.
+	 */
+	public Value getRepresentative() {
+		Value v = this;
+		Value parent = v.alias;
+		while(parent != null) {
+			Value grandparent = parent.alias;
+			if(grandparent == null) {
+				return parent;
+			}
+			v.alias = grandparent;
+			v = grandparent;
+			parent = v.alias;
+		}
+		return v;
+	}
+
+	/**
+	 * makes this value an alias of the given one, they share their content
+	 * from now on; this value must be uninitialized. Processes suspended on
+	 * this value move to the other one or are woken if it is initialized.
+	 */
+	public void aliasTo(Value other) {
+		Value self = getRepresentative();
+		Value root = other.getRepresentative();
+		if(self == root) {
+			return;
+		}
+		if(self.value.hasValue()) {
+			throw new IllegalStateException("initialized value cannot become an alias: " + this);
+		}
+		self.alias = root;
+		if(root.value.hasValue()) {
+			self.wakeSuspensions();
+		} else if(self.suspensions != null) {
+			for(Suspension s : self.suspensions) {
+				root.suspend(s);
+			}
+			self.suspensions = null;
+		}
+	}
+
+	/**
+	 * registers a process to be woken once this value gets initialized
+	 */
+	public void suspend(Suspension suspension) {
+		Value root = getRepresentative();
+		if(root.suspensions == null) {
+			root.suspensions = new ArrayList<>();
+		}
+		root.suspensions.add(suspension);
+	}
+	
+	private void wakeSuspensions() {
+		if(suspensions != null) {
+			List<Suspension> woken = suspensions;
+			suspensions = null;
+			for(Suspension s : woken) {
+				s.wake();
+			}
+		}
 	}
 
 	@Override
 	public String toString() {
-		return "Value [name=" + name + (value.hasValue() ? ", value=" + value.getValue() : "") + "]";
+		Value root = getRepresentative();
+		return "Value [name=" + name + (root != this ? ", alias=" + root.name : "")
+				+ (root.value.hasValue() ? ", value=" + root.value.getValue() : "") + "]";
 	}
 }
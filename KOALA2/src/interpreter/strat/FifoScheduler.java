@@ -0,0 +1,41 @@
+package interpreter.strat;
+
+import interpreter.agenda.Goal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Tries the literals in the order they have been scheduled. Body literals
+ * queue up behind all literals waiting already, so every process gets its
+ * turn (round-robin).
+ */
+public final class FifoScheduler implements Scheduler {
+
+	private final Deque<Goal.Node> queue = new ArrayDeque<>();
+
+	@Override
+	public void schedule(Goal.Node node) {
+		queue.addLast(node);
+	}
+
+	@Override
+	public Goal.Node next() {
+		return queue.pollFirst();
+	}
+
+	@Override
+	public int size() {
+		return queue.size();
+	}
+
+	@Override
+	public void clear() {
+		queue.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "FIFO";
+	}
+}
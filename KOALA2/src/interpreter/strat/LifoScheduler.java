@@ -0,0 +1,42 @@
+package interpreter.strat;
+
+import interpreter.agenda.Goal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Tries the most recently scheduled literal first, i.e. the body literals
+ * of the latest reduction, starting from the last one (depth-first). The
+ * literals tried work on the data just produced, which keeps it in cache,
+ * but processes may starve as long as others keep spawning.
+ */
+public final class LifoScheduler implements Scheduler {
+
+	private final Deque<Goal.Node> stack = new ArrayDeque<>();
+
+	@Override
+	public void schedule(Goal.Node node) {
+		stack.push(node);
+	}
+
+	@Override
+	public Goal.Node next() {
+		return stack.poll();
+	}
+
+	@Override
+	public int size() {
+		return stack.size();
+	}
+
+	@Override
+	public void clear() {
+		stack.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "LIFO";
+	}
+}
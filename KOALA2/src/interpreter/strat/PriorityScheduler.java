@@ -0,0 +1,95 @@
+package interpreter.strat;
+
+import interpreter.agenda.Goal;
+import interpreter.data.Literal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Tries the scheduled literal of the predicate with the highest priority
+ * first, literals of equal priority in the order they have been scheduled.
+ * Predicates are given as name/arity, all others have priority 0.
+ */
+public final class PriorityScheduler implements Scheduler {
+
+	private static final class Entry implements Comparable<Entry> {
+
+		private final Goal.Node node;
+		private final int priority;
+		private final long sequence;
+
+		private Entry(Goal.Node node, int priority, long sequence) {
+			this.node = node;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			if(priority != other.priority) {
+				return priority > other.priority ? -1 : 1;
+			}
+			return Long.compare(sequence, other.sequence);
+		}
+	}
+
+	private final Map<String, Integer> priorities;
+	private final PriorityQueue<Entry> queue;
+	private long sequence;
+
+	public PriorityScheduler() {
+		this(new HashMap<String, Integer>());
+	}
+
+	/**
+	 * @param priorities
+	 * 						the priority of each predicate, keyed by name/arity
+	 */
+	public PriorityScheduler(Map<String, Integer> priorities) {
+		this.priorities = new HashMap<>(priorities);
+		this.queue = new PriorityQueue<>();
+		this.sequence = 0;
+	}
+
+	/**
+	 * sets the priority of a predicate, literals scheduled already keep their priority
+	 */
+	public void setPriority(String predicate, int priority) {
+		priorities.put(predicate, priority);
+	}
+
+	public int getPriority(String predicate) {
+		Integer priority = priorities.get(predicate);
+		return priority == null ? 0 : priority;
+	}
+
+	@Override
+	public void schedule(Goal.Node node) {
+		Literal literal = node.getLiteral();
+		int priority = getPriority(literal.getName() + "/" + literal.getArgs().size());
+		queue.add(new Entry(node, priority, sequence++));
+	}
+
+	@Override
+	public Goal.Node next() {
+		Entry entry = queue.poll();
+		return entry == null ? null : entry.node;
+	}
+
+	@Override
+	public int size() {
+		return queue.size();
+	}
+
+	@Override
+	public void clear() {
+		queue.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "Priority " + priorities;
+	}
+}
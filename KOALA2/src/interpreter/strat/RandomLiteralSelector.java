@@ -10,9 +10,23 @@ import util.Tuple;
 
 public class RandomLiteralSelector implements LiteralSelector {
 
+	private final Random random;
+
+	public RandomLiteralSelector() {
+		this.random = new Random();
+	}
+
+	/**
+	 * @param seed
+	 * 						the seed of the random generator, for reproducible selections
+	 */
+	public RandomLiteralSelector(long seed) {
+		this.random = new Random(seed);
+	}
+
 	@Override
 	public int select(List<Tuple<Literal, List<Closure>>> alternatives) {
-		return new Random().nextInt(alternatives.size());
+		return random.nextInt(alternatives.size());
 	}
 
 	@Override
@@ -10,10 +10,24 @@ import util.Tuple;
 
 public class RandomRuleSelector implements RuleSelector {
 
+	private final Random random;
+
+	public RandomRuleSelector() {
+		this.random = new Random();
+	}
+
+	/**
+	 * @param seed
+	 * 						the seed of the random generator, for reproducible selections
+	 */
+	public RandomRuleSelector(long seed) {
+		this.random = new Random(seed);
+	}
+
 	@Override
 	public int select(Tuple<Literal, List<Closure>> tuple) {
 		//System.out.println("random space = 0 .. " + (tuple.getSecond().size()-1));
-		return new Random().nextInt(tuple.getSecond().size());
+		return random.nextInt(tuple.getSecond().size());
 	}
 
 	@Override
@@ -0,0 +1,59 @@
+package interpreter.strat;
+
+import interpreter.agenda.Goal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tries the scheduled literals in random order. With a fixed seed, runs of
+ * the same goal are reproducible.
+ */
+public final class RandomScheduler implements Scheduler {
+
+	private final List<Goal.Node> nodes = new ArrayList<>();
+	private final Random random;
+
+	public RandomScheduler() {
+		this.random = new Random();
+	}
+
+	public RandomScheduler(long seed) {
+		this.random = new Random(seed);
+	}
+
+	@Override
+	public void schedule(Goal.Node node) {
+		nodes.add(node);
+	}
+
+	@Override
+	public Goal.Node next() {
+		int size = nodes.size();
+		if(size == 0) {
+			return null;
+		}
+		//move the last node into the gap instead of shifting all following ones
+		int i = random.nextInt(size);
+		Goal.Node node = nodes.get(i);
+		nodes.set(i, nodes.get(size - 1));
+		nodes.remove(size - 1);
+		return node;
+	}
+
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+	@Override
+	public void clear() {
+		nodes.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "Random";
+	}
+}
@@ -0,0 +1,41 @@
+package interpreter.strat;
+
+import interpreter.agenda.Goal;
+
+/**
+ * Decides which literal of the goal is tried next when the interpreter is
+ * stepped by {@link interpreter.Interpreter#step(RuleSelector)}.
+ *
+ * Unlike a {@link LiteralSelector}, a scheduler never sees the alternatives
+ * of all literals. The interpreter schedules each literal when it enters the
+ * goal and again when it is woken after having been suspended. Every call of
+ * {@link #next()} hands out one scheduled literal, which the interpreter
+ * then either reduces or suspends until one of its variables changes.
+ *
+ * A node may have been removed from the goal by the time it is handed out,
+ * the interpreter skips such nodes.
+ */
+public interface Scheduler {
+
+	/**
+	 * makes a literal eligible to be tried
+	 */
+	void schedule(Goal.Node node);
+
+	/**
+	 * removes the next literal to be tried from the schedule
+	 *
+	 * @return the node of the literal, null if no literal is scheduled
+	 */
+	Goal.Node next();
+
+	/**
+	 * @return the number of scheduled literals
+	 */
+	int size();
+
+	/**
+	 * forgets all scheduled literals
+	 */
+	void clear();
+}
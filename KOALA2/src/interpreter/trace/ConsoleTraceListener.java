@@ -0,0 +1,85 @@
+package interpreter.trace;
+
+import interpreter.Interpreter;
+import interpreter.data.Closure;
+import interpreter.data.Garbage;
+import interpreter.data.Literal;
+import interpreter.data.Value;
+
+import java.io.PrintStream;
+
+import util.PrettyPrinter;
+
+/**
+ * Writes a textual trace of the interpreter to a stream, by default to
+ * the console.
+ */
+public final class ConsoleTraceListener implements TraceListener {
+
+	private final Interpreter interpreter;
+	private final PrintStream out;
+
+	public ConsoleTraceListener(Interpreter interpreter) {
+		this(interpreter, System.out);
+	}
+
+	/**
+	 * @param interpreter
+	 * 						used to print the current values of arguments
+	 */
+	public ConsoleTraceListener(Interpreter interpreter, PrintStream out) {
+		this.interpreter = interpreter;
+		this.out = out;
+	}
+
+	@Override
+	public void checkingClosure(Literal literal, Closure closure) {
+		PrettyPrinter printer = new PrettyPrinter();
+		closure.getRule().apply(printer);
+		out.println("checking " + printer.getString());
+	}
+
+	@Override
+	public void parameterBound(String paramName, Value arg, boolean persistent) {
+		if(arg.isInit() || persistent) {
+			out.println(paramName + " ---> " + interpreter.getResultString(arg));
+		} else {
+			out.println(paramName + " ~~~> " + arg.getName());
+		}
+	}
+
+	@Override
+	public void askChecked(Closure closure, boolean satisfied) {
+		out.println("checking ask... " + (satisfied ? "deferred" : "failed"));
+	}
+
+	@Override
+	public void tellChecked(Closure closure, boolean satisfied) {
+		out.println("checking tell... " + (satisfied ? "ok" : "failed"));
+	}
+
+	@Override
+	public void closureChecked(Closure closure, boolean valid) {
+		out.println();
+	}
+
+	@Override
+	public void reducing(Literal literal, Closure closure, Phase phase) {
+		switch(phase) {
+		case ASK:
+			out.println("evaluating ask... ");
+			break;
+		case TELL:
+			out.println("evaluating tell... ");
+			break;
+		case BODY:
+			out.println("evaluating body... ");
+			break;
+		}
+	}
+
+	@Override
+	public void storeCollected(Garbage garbage) {
+		out.println("collected store: " + garbage);
+	}
+}
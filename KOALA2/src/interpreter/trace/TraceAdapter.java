@@ -0,0 +1,41 @@
+package interpreter.trace;
+
+import interpreter.data.Closure;
+import interpreter.data.Garbage;
+import interpreter.data.Literal;
+import interpreter.data.Value;
+
+/**
+ * A trace listener that ignores all events. It is the default of the
+ * interpreter and can be extended to only handle some of the events.
+ */
+public class TraceAdapter implements TraceListener {
+
+	@Override
+	public void checkingClosure(Literal literal, Closure closure) {
+	}
+
+	@Override
+	public void parameterBound(String paramName, Value arg, boolean persistent) {
+	}
+
+	@Override
+	public void askChecked(Closure closure, boolean satisfied) {
+	}
+
+	@Override
+	public void tellChecked(Closure closure, boolean satisfied) {
+	}
+
+	@Override
+	public void closureChecked(Closure closure, boolean valid) {
+	}
+
+	@Override
+	public void reducing(Literal literal, Closure closure, Phase phase) {
+	}
+
+	@Override
+	public void storeCollected(Garbage garbage) {
+	}
+}
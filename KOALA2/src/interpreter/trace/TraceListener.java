@@ -0,0 +1,71 @@
+package interpreter.trace;
+
+import interpreter.data.Closure;
+import interpreter.data.Garbage;
+import interpreter.data.Literal;
+import interpreter.data.Value;
+
+/**
+ * Receives the individual steps of the interpreter while it checks closures
+ * and reduces literals. Listeners are called on the hot path of the
+ * interpreter, so anything expensive like printing a rule should only be
+ * done by the listener itself.
+ *
+ * While the interpreter reduces literals in parallel, see
+ * {@link interpreter.Interpreter#interpretParallel}, the calls for
+ * {@link Phase#TELL} and {@link Phase#BODY} come from the threads of the
+ * pool, several at once, and the reductions of a step interleave: a listener
+ * used that way has to be thread-safe.
+ *
+ * @see TraceAdapter
+ */
+public interface TraceListener {
+
+	public enum Phase {
+		ASK,
+		TELL,
+		BODY
+	}
+
+	/**
+	 * a closure is about to be checked against a literal
+	 */
+	void checkingClosure(Literal literal, Closure closure);
+
+	/**
+	 * a parameter of the current closure has been bound to an argument of the literal
+	 *
+	 * @param persistent
+	 * 						false if an uninitialized argument has been replaced by a
+	 * 						local copy, i.e. while checking a closure
+	 */
+	void parameterBound(String paramName, Value arg, boolean persistent);
+
+	/**
+	 * the non-numeric part of the ask-constraints has been evaluated
+	 *
+	 * @param satisfied
+	 * 						true if the numeric part is left to be asked
+	 */
+	void askChecked(Closure closure, boolean satisfied);
+
+	/**
+	 * the tell-constraints of a closure with entailed ask-constraints have been checked
+	 */
+	void tellChecked(Closure closure, boolean satisfied);
+
+	/**
+	 * the check of a closure that matched the literal is complete
+	 */
+	void closureChecked(Closure closure, boolean valid);
+
+	/**
+	 * the selected closure is about to evaluate the given part of its rule
+	 */
+	void reducing(Literal literal, Closure closure, Phase phase);
+
+	/**
+	 * the store has been collected
+	 */
+	void storeCollected(Garbage garbage);
+}
@@ -0,0 +1,48 @@
+package checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import interpreter.data.ParameterShape;
+import interpreter.data.Program;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import cli.Loader;
+
+public class ClauseClassifierTest {
+
+	@Test
+	public void classifiesComparedParameters() throws IOException {
+		ParameterShape[] shapes = shapes("p(X, Y, Z, L) :- X = 5, Y < 3, Z = X, L = [] : true | .", "p/4");
+		assertEquals(ParameterShape.Kind.INT_CONSTANT, shapes[0].getKind());
+		assertEquals(5, shapes[0].getConstant());
+		assertEquals(ParameterShape.Kind.INTEGER, shapes[1].getKind());
+		assertEquals(ParameterShape.Kind.BOUND, shapes[2].getKind());
+		assertEquals(ParameterShape.Kind.EMPTY_LIST, shapes[3].getKind());
+	}
+
+	@Test
+	public void doesNotClassifyParametersBoundByMatching() throws IOException {
+		ParameterShape[] shapes = shapes("p(L, H, R) :- L = [H|T], H > 0 : R = [] | .", "p/3");
+		assertEquals(ParameterShape.Kind.CONS, shapes[0].getKind());
+		assertEquals(ParameterShape.Kind.ANY, shapes[1].getKind());
+		assertEquals(ParameterShape.Kind.ANY, shapes[2].getKind());
+	}
+
+	@Test
+	public void doesNotClassifyParametersMatchedByLaterConjuncts() throws IOException {
+		ParameterShape[] shapes = shapes("p(L, H, T) :- H = 1, T = [], L =\\= [H|T] : true | .", "p/3");
+		assertEquals(ParameterShape.Kind.LIST, shapes[0].getKind());
+		assertEquals(ParameterShape.Kind.ANY, shapes[1].getKind());
+		assertEquals(ParameterShape.Kind.ANY, shapes[2].getKind());
+	}
+
+	private static ParameterShape[] shapes(String source, String predicate) throws IOException {
+		Program program = new Loader().loadProgram(new StringReader(source));
+		assertNotNull(program);
+		return program.getClosures(predicate).get(0).getShapes();
+	}
+}
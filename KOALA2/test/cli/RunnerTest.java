@@ -0,0 +1,81 @@
+package cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import interpreter.data.Literal;
+import interpreter.data.Program;
+import interpreter.data.Value;
+import interpreter.strat.CustomLiteralSelector;
+import interpreter.strat.CustomRuleSelector;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RunnerTest {
+
+	private static final String APPEND =
+			"app(X, Y, Z) :- X = [] : Z = Y | .\n"
+			+ "app(X, Y, Z) :- X = [H|T] : Z = [H|R] | app(T, Y, R).\n";
+
+	@Test
+	public void reducesRuleTestingParameterBoundByMatching() throws IOException {
+		Runner runner = runner("p(L, H, R) :- L = [H|T], H > 0 : R = [] | .", "p([5], X, R)");
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(1, runner.getSteps());
+	}
+
+	@Test
+	public void wakesGuardDecidedWithoutBoundChange() throws IOException {
+		//telling Z =\= 0 entails X =\= Y but changes neither the bounds of X
+		//nor of Y, the variables diff is suspended on
+		Runner runner = runner(
+				"make(X, Y) :- true : X < 100, Y < 100 | .\n"
+				+ "diff(X, Y, R) :- X =\\= Y : R = 1 | .\n"
+				+ "link(X, Y, Z) :- true : Z = X - Y | .\n"
+				+ "nonzero(Z) :- true : Z =\\= 0 | .\n",
+				"make(X, Y), diff(X, Y, R), link(X, Y, Z), nonzero(Z)");
+		runner.getInterpreter().setDomain(0, 100);
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(4, runner.getSteps());
+	}
+
+	@Test
+	public void aliasesListsToldEqual() throws IOException {
+		Runner runner = runner(APPEND + "eq(X, Y) :- true : X = Y | .\n",
+				"eq(A, B), eq(C, B), app([1, 2], [3], A)");
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals("1 : 2 : 3 : []", result(runner, 1, 1));
+		assertEquals("1 : 2 : 3 : []", result(runner, 1, 0));
+	}
+
+	@Test
+	public void aliasesNumbersToldEqual() throws IOException {
+		Runner runner = runner("eq(X, Y) :- true : X = Y | .\nfive(X) :- true : X = 5 | .\n",
+				"eq(A, B), eq(C, B), five(C)");
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(3, runner.getSteps());
+		assertEquals("5", result(runner, 0, 0));
+	}
+
+	/**
+	 * @return the result of an argument of a literal of the initial goal
+	 */
+	private static String result(Runner runner, int literal, int arg) {
+		Value value = runner.getInitialGoal().get(literal).getArgs().get(arg);
+		return runner.getInterpreter().getResultString(value);
+	}
+
+	private static Runner runner(String source, String goalString) throws IOException {
+		Loader loader = new Loader();
+		Program program = loader.loadProgram(new StringReader(source));
+		assertNotNull(loader.getMessages().toString(), program);
+		List<Literal> goal = new LinkedList<>();
+		assertTrue(loader.getMessages().toString(), loader.loadGoal(goalString, program, goal));
+		return new Runner(program, goal, new CustomLiteralSelector(0), new CustomRuleSelector(0));
+	}
+}
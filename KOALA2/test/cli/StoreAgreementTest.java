@@ -0,0 +1,235 @@
+package cli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import interpreter.data.ChocoStore;
+import interpreter.data.Garbage;
+import interpreter.data.IncrementalChocoStore;
+import interpreter.data.Literal;
+import interpreter.data.PartitionedChocoStore;
+import interpreter.data.Program;
+import interpreter.data.Valuation;
+import interpreter.data.Value;
+import interpreter.strat.CustomLiteralSelector;
+import interpreter.strat.CustomRuleSelector;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * Runs sample programs against the stores keeping live solvers and checks
+ * every ask and tell check against the reference {@link ChocoStore} fed with
+ * the same tells, as well as the results of the whole run.
+ */
+public class StoreAgreementTest {
+
+	private static final String PRODUCER_CONSUMER =
+			"produce(N, L) :- N = 0 : L = [] | .\n"
+			+ "produce(N, L) :- N > 0 : L = [N|T], M = N - 1 | produce(M, T).\n"
+			+ "consume(L, S) :- L = [] : S = 0 | .\n"
+			+ "consume(L, S) :- L = [H|T] : S = H + R | consume(T, R).\n";
+
+	private static final String PRIMES =
+			"primes(N, Ps) :- true : true | ints(2, N, L), sift(L, Ps).\n"
+			+ "ints(I, N, L) :- I > N : L = [] | .\n"
+			+ "ints(I, N, L) :- I <= N : L = [I|T], J = I + 1 | ints(J, N, T).\n"
+			+ "sift(L, Ps) :- L = [] : Ps = [] | .\n"
+			+ "sift(L, Ps) :- L = [P|T] : Ps = [P|R] | filter(T, P, F), sift(F, R).\n"
+			+ "filter(L, P, F) :- L = [] : F = [] | .\n"
+			+ "filter(L, P, F) :- L = [X|T] : R = X % P | select(R, X, T, P, F).\n"
+			+ "select(R, X, T, P, F) :- R = 0 : true | filter(T, P, F).\n"
+			+ "select(R, X, T, P, F) :- R > 0 : F = [X|G] | filter(T, P, G).\n";
+
+	/**
+	 * guards over variables that only the solver can decide
+	 */
+	private static final String BOUNDS =
+			"low(X) :- true : X > 5 | .\n"
+			+ "high(X) :- true : X < 9 | .\n"
+			+ "small(Y) :- true : Y < 3 | .\n"
+			+ "max(X, Y, Z) :- X >= Y : Z = X | .\n"
+			+ "max(X, Y, Z) :- Y > X : Z = Y | .\n"
+			+ "sum(X, Y, Z) :- true : Z = X + Y | .\n"
+			+ "fix(X) :- X > 4 : X = 8 | .\n";
+
+	private static final String WAKE =
+			"make(X, Y) :- true : X < 100, Y < 100 | .\n"
+			+ "diff(X, Y, R) :- X =\\= Y : R = 1 | .\n"
+			+ "link(X, Y, Z) :- true : Z = X - Y | .\n"
+			+ "nonzero(Z) :- true : Z =\\= 0 | .\n";
+
+	/**
+	 * equations between integer variables that are constrained already
+	 */
+	private static final String EQUATIONS =
+			"pair(X, Y) :- true : X < 50, Y > 10 | .\n"
+			+ "same(X, Y) :- true : X = Y | .\n"
+			+ "top(X) :- true : X < 20 | .\n"
+			+ "pick(Y) :- Y < 20 : Y = 17 | .\n";
+
+	@Test
+	public void incrementalStoreAnswersLikeReferenceStore() throws IOException {
+		runSamples(false);
+	}
+
+	@Test
+	public void partitionedStoreAnswersLikeReferenceStore() throws IOException {
+		runSamples(true);
+	}
+
+	private static void runSamples(boolean partitioned) throws IOException {
+		assertSameRun(PRODUCER_CONSUMER, "produce(6, L), consume(L, S)", partitioned);
+		assertSameRun(PRIMES, "primes(20, Ps)", partitioned);
+		assertSameRun(BOUNDS, "max(A, B, C), sum(A, B, D), low(A), high(A), small(B), fix(A)", partitioned);
+		assertSameRun(WAKE, "make(X, Y), diff(X, Y, R), link(X, Y, Z), nonzero(Z)", partitioned);
+		assertSameRun(EQUATIONS, "pair(A, B), same(A, B), same(B, A), pick(B), top(A)", partitioned);
+	}
+
+	private static void assertSameRun(String source, String goal, boolean partitioned) throws IOException {
+		Runner expected = runner(source, goal, new ChocoStore());
+		ChocoStore store = partitioned ? new PartitionedChocoStore() : new IncrementalChocoStore();
+		Runner actual = runner(source, goal, new ComparingStore(store));
+		assertEquals(goal, expected.run(Runner.UNLIMITED, Runner.UNLIMITED), actual.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(goal, expected.getSteps(), actual.getSteps());
+		for(int i=0; i<expected.getInitialGoal().size(); ++i) {
+			List<Value> args = expected.getInitialGoal().get(i).getArgs();
+			for(int j=0; j<args.size(); ++j) {
+				Value arg = actual.getInitialGoal().get(i).getArgs().get(j);
+				assertEquals(goal, expected.getInterpreter().getResultString(args.get(j)),
+						actual.getInterpreter().getResultString(arg));
+			}
+		}
+	}
+
+	private static Runner runner(String source, String goalString, ChocoStore store) throws IOException {
+		Loader loader = new Loader();
+		Program program = loader.loadProgram(new StringReader(source));
+		assertNotNull(loader.getMessages().toString(), program);
+		List<Literal> goal = new LinkedList<>();
+		assertTrue(loader.getMessages().toString(), loader.loadGoal(goalString, program, goal));
+		Runner runner = new Runner(program, goal, new CustomLiteralSelector(0), new CustomRuleSelector(0), store);
+		runner.getInterpreter().setDomain(0, 100);
+		return runner;
+	}
+
+	/**
+	 * Answers by the store under test after checking that the reference
+	 * store, which receives the same tells, answers the same.
+	 */
+	private static final class ComparingStore extends ChocoStore {
+
+		private final ChocoStore reference = new ChocoStore();
+		private final ChocoStore tested;
+
+		ComparingStore(ChocoStore tested) {
+			this.tested = tested;
+		}
+
+		@Override
+		public synchronized boolean ask(Constraint aConstraint) {
+			boolean entailed = tested.ask(aConstraint);
+			assertEquals(String.valueOf(aConstraint), reference.ask(aConstraint), entailed);
+			return entailed;
+		}
+
+		@Override
+		public synchronized boolean askAll(List<Constraint> constraints) {
+			boolean entailed = tested.askAll(constraints);
+			assertEquals(String.valueOf(constraints), reference.askAll(constraints), entailed);
+			return entailed;
+		}
+
+		@Override
+		public synchronized boolean[] askEach(List<List<Constraint>> guards) {
+			boolean[] entailed = tested.askEach(guards);
+			assertArrayEquals(String.valueOf(guards), reference.askEach(guards), entailed);
+			return entailed;
+		}
+
+		@Override
+		public synchronized Entailment entails(Constraint aConstraint) {
+			Entailment entailment = tested.entails(aConstraint);
+			assertEquals(String.valueOf(aConstraint), reference.entails(aConstraint), entailment);
+			return entailment;
+		}
+
+		@Override
+		public synchronized boolean isTellOk(Constraint aConstraint) {
+			boolean ok = tested.isTellOk(aConstraint);
+			assertEquals(String.valueOf(aConstraint), reference.isTellOk(aConstraint), ok);
+			return ok;
+		}
+
+		@Override
+		public synchronized boolean tell(Constraint aConstraint) {
+			boolean told = tested.tell(aConstraint);
+			assertEquals(String.valueOf(aConstraint), reference.tell(aConstraint), told);
+			return told;
+		}
+
+		@Override
+		public synchronized void commit(List<Constraint> constraints) {
+			tested.commit(constraints);
+			reference.commit(constraints);
+		}
+
+		@Override
+		public synchronized void scope(Constraint aConstraint, Collection<IntegerVariable> variables) {
+			tested.scope(aConstraint, variables);
+		}
+
+		@Override
+		public synchronized void equate(Constraint aConstraint, IntegerVariable var1, IntegerVariable var2) {
+			tested.equate(aConstraint, var1, var2);
+			reference.equate(aConstraint, var1, var2);
+		}
+
+		@Override
+		public synchronized IntegerVariable getRepresentative(IntegerVariable var) {
+			return tested.getRepresentative(var);
+		}
+
+		@Override
+		public synchronized boolean isIndependent(Collection<IntegerVariable> variables1,
+				Collection<IntegerVariable> variables2) {
+			return tested.isIndependent(variables1, variables2);
+		}
+
+		@Override
+		public synchronized Garbage collect(Collection<IntegerVariable> reachable) {
+			return tested.collect(reachable);
+		}
+
+		@Override
+		public synchronized Integer getValueOfVar(IntegerVariable var) {
+			Integer value = tested.getValueOfVar(var);
+			assertEquals(String.valueOf(var), reference.getValueOfVar(var), value);
+			return value;
+		}
+
+		@Override
+		public synchronized Valuation getValuation() {
+			return tested.getValuation();
+		}
+
+		@Override
+		public synchronized long getVersion() {
+			return tested.getVersion();
+		}
+
+		@Override
+		public synchronized long getAskCount(AskTier tier) {
+			return tested.getAskCount(tier);
+		}
+	}
+}
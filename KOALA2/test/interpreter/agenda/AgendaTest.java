@@ -0,0 +1,179 @@
+package interpreter.agenda;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import interpreter.data.ChocoStore;
+import interpreter.data.Closure;
+import interpreter.data.Environment;
+import interpreter.data.FrameLayout;
+import interpreter.data.ListVariable;
+import interpreter.data.Literal;
+import interpreter.data.ParameterShape;
+import interpreter.data.Value;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import choco.Choco;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerConstantVariable;
+import choco.kernel.model.variables.integer.IntegerVariable;
+import parser.node.TIdent;
+
+public class AgendaTest {
+
+	private Agenda agenda;
+	private IntegerVariable x;
+	private IntegerVariable y;
+	private IntegerVariable z;
+	private IntegerVariable w;
+	private AgendaEntry entry;
+
+	@Before
+	public void setUp() {
+		agenda = new Agenda();
+		x = Choco.makeIntVar("x", 0, 10);
+		y = Choco.makeIntVar("y", 0, 10);
+		z = Choco.makeIntVar("z", 0, 10);
+		w = Choco.makeIntVar("w", 0, 10);
+		Literal literal = new Literal("diff", Arrays.asList(value("X", x), value("Y", y)));
+		Goal.Node node = new Goal().add(literal);
+		entry = agenda.update(node, Collections.<Closure>emptyList(), Collections.<Commit>emptyList(), 0);
+	}
+
+	@Test
+	public void keepsLiteralSuspendedOnTellsToOtherComponents() {
+		agenda.wakeIntVariables(Collections.singletonList(w), connecting(x, y, z));
+		assertTrue(agenda.takeWoken().isEmpty());
+		assertSame(entry, agenda.lookup(entry.getLiteral(), 1));
+	}
+
+	@Test
+	public void wakesLiteralOnTellToItsComponent() {
+		//z is not watched by the literal and the tell need not change the bounds of x or y
+		agenda.wakeIntVariables(Collections.singletonList(z), connecting(x, y, z));
+		assertEquals(Collections.singletonList(entry), agenda.takeWoken());
+		assertNull(agenda.lookup(entry.getLiteral(), 1));
+	}
+
+	@Test
+	public void wakesLiteralOnTellOfWatchedVariable() {
+		agenda.wakeIntVariables(Collections.singletonList(y), connecting());
+		assertEquals(Collections.singletonList(entry), agenda.takeWoken());
+	}
+
+	@Test
+	public void keepsRunnableCheckAfterTellsToOtherComponents() {
+		AgendaEntry runnable = runnable();
+		ChocoStore store = connecting(x, y, z);
+		assertSame(runnable, agenda.lookup(runnable.getLiteral(), 0, Collections.singletonList(w), store));
+		//the store version alone would make the check stale
+		assertNull(agenda.lookup(runnable.getLiteral(), 1));
+	}
+
+	@Test
+	public void dropsRunnableCheckAfterTellToItsComponent() {
+		AgendaEntry runnable = runnable();
+		ChocoStore store = connecting(x, y, z);
+		assertNull(agenda.lookup(runnable.getLiteral(), 0, Collections.singletonList(z), store));
+	}
+
+	@Test
+	public void keepsCommittedCheckAfterTellToVariableItOnlyAsked() {
+		Value out = new Value("Z");
+		AgendaEntry committed = committed(out, new Value("Z"));
+		ChocoStore store = connecting(x, y, z);
+		assertSame(committed, agenda.lookup(committed.getLiteral(), 0, Collections.singletonList(z), store));
+	}
+
+	@Test
+	public void dropsCommittedCheckAfterTellToVariableItConstrains() {
+		Value out = new Value("Z");
+		AgendaEntry committed = committed(out, new Value("Z"), Choco.gt(x, 1));
+		ChocoStore store = connecting(x, y, z);
+		assertNull(agenda.lookup(committed.getLiteral(), 0, Collections.singletonList(z), store));
+	}
+
+	@Test
+	public void keepsCommittedCheckAfterBindingOfArgumentItLeavesAlone() {
+		Value out = new Value("Z");
+		AgendaEntry committed = committed(out, new Value("Z"));
+		out.init(new IntegerConstantVariable(1));
+		assertSame(committed, agenda.lookup(committed.getLiteral(), 0, Collections.<IntegerVariable>emptyList(),
+				connecting()));
+	}
+
+	@Test
+	public void dropsCommittedCheckAfterBindingOfArgumentItInitializes() {
+		Value out = new Value("Z");
+		Value local = new Value("Z");
+		local.init(new ListVariable());
+		AgendaEntry committed = committed(out, local);
+		out.init(new IntegerConstantVariable(1));
+		assertNull(agenda.lookup(committed.getLiteral(), 0, Collections.<IntegerVariable>emptyList(), connecting()));
+	}
+
+	/**
+	 * @return the entry of a runnable literal over x and y, checked at
+	 * 			store version 0, whose closure is evaluated again when committed
+	 */
+	private AgendaEntry runnable() {
+		Literal literal = new Literal("diff", Arrays.asList(value("X", x), value("Y", y)));
+		return update(literal, null);
+	}
+
+	/**
+	 * @return the entry of a runnable literal over x and an uninitialized
+	 * 			argument, checked at store version 0, whose commit holds the
+	 * 			given local value for the argument and tells the given
+	 * 			constraints
+	 */
+	private AgendaEntry committed(Value out, Value local, Constraint... constraints) {
+		Value in = value("X", x);
+		Literal literal = new Literal("copy", Arrays.asList(in, out));
+		Environment environment = new Environment(new FrameLayout(Arrays.asList("X", "Z"),
+				new IdentityHashMap<TIdent, Integer>()));
+		environment.put(0, in);
+		environment.put(1, local);
+		List<IntegerVariable> variables = constraints.length == 0
+				? Collections.<IntegerVariable>emptyList() : Collections.singletonList(x);
+		return update(literal, new Commit(environment, Arrays.asList(constraints), variables,
+				Collections.<ListVariable>emptyList()));
+	}
+
+	private AgendaEntry update(Literal literal, Commit commit) {
+		Goal.Node node = new Goal().add(literal);
+		Closure closure = new Closure(null, null, new ParameterShape[0], null);
+		return agenda.update(node, Collections.singletonList(closure), Collections.singletonList(commit), 0);
+	}
+
+	private static Value value(String name, IntegerVariable var) {
+		Value value = new Value(name);
+		value.init(var);
+		return value;
+	}
+
+	/**
+	 * @return a store holding the given variables in a single component,
+	 * 			every other variable is in a component of its own
+	 */
+	private static ChocoStore connecting(IntegerVariable... component) {
+		final Collection<IntegerVariable> connected = Arrays.asList(component);
+		return new ChocoStore() {
+			@Override
+			public synchronized boolean isIndependent(Collection<IntegerVariable> variables1,
+					Collection<IntegerVariable> variables2) {
+				return Collections.disjoint(variables1, variables2)
+						&& (Collections.disjoint(variables1, connected) || Collections.disjoint(variables2, connected));
+			}
+		};
+	}
+}
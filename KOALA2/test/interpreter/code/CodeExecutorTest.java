@@ -0,0 +1,177 @@
+package interpreter.code;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import interpreter.data.ChocoStore.AskTier;
+import interpreter.data.Literal;
+import interpreter.data.Program;
+import interpreter.data.Value;
+import interpreter.strat.CustomLiteralSelector;
+import interpreter.strat.CustomRuleSelector;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import cli.Loader;
+import cli.Runner;
+
+/**
+ * Runs small programs through the compiled rules. The expected results and
+ * step counts are those of the visitors that evaluated the syntax trees of
+ * the rules before {@link CodeExecutor}, run on the same programs with the
+ * reference store.
+ */
+public class CodeExecutorTest {
+
+	private static final String GUARDS =
+			"sign(X, S) :- X > 0 : S = 1 | .\n"
+			+ "sign(X, S) :- X = 0 : S = 0 | .\n"
+			+ "above(X) :- true : X > 3 | .\n"
+			+ "below(X) :- true : X < 5 | .\n"
+			+ "four(X, R) :- X = 4 : R = 1 | .\n"
+			+ "big(X, R) :- X >= 10 : R = 1 | .\n"
+			+ "small(X, R) :- X <= 3 : R = 2 | .\n"
+			+ "apart(X, Y, R) :- X =\\= Y : R = 3 | .\n";
+
+	private static final String ARITHMETIC =
+			"calc(X, Y, Q, R) :- true : Q = X / Y, R = X % Y | .\n"
+			+ "parity(X, R) :- true : M = X % 2 | test(M, R).\n"
+			+ "test(M, R) :- M = 0 : R = 1 | .\n"
+			+ "test(M, R) :- M > 0 : R = 0 | .\n"
+			+ "half(X, H) :- true : H = X / 2 | .\n"
+			+ "scale(X, Y) :- true : Y = X * 3 + 1 | .\n"
+			+ "quot(X, Y, Q) :- Q = X / Y : true | .\n";
+
+	private static final String LISTS =
+			"ne(X, Y, R) :- X =\\= Y : R = 1 | .\n"
+			+ "eq(X, Y, R) :- X = Y : R = 0 | .\n";
+
+	private static final String TELLS =
+			"one(X) :- true : X = 1 | .\n"
+			+ "two(X) :- true : X = 2 | .\n"
+			+ "pos(X) :- true : X > 5 | .\n"
+			+ "neg(X) :- true : X < 3 | .\n"
+			+ "nil(L) :- true : L = [] | .\n"
+			+ "cons(L) :- true : L = [1] | .\n";
+
+	@Test
+	public void decidesNumericGuards() throws IOException {
+		Runner runner = runner(GUARDS, "sign(5, A), sign(0, B), above(C), below(C), four(C, D), "
+				+ "big(12, E), small(2, F), apart(3, 4, G)");
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(8, runner.getSteps());
+		assertEquals("1", result(runner, 0, 1));
+		assertEquals("0", result(runner, 1, 1));
+		assertEquals("4", result(runner, 2, 0));
+		assertEquals("1", result(runner, 4, 1));
+		assertEquals("1", result(runner, 5, 1));
+		assertEquals("2", result(runner, 6, 1));
+		assertEquals("3", result(runner, 7, 2));
+	}
+
+	@Test
+	public void decidesGuardsOverFixedVariablesWithoutSolver() throws IOException {
+		Runner runner = runner(GUARDS
+				+ "start(C, D, G, H) :- true : C > 3 | rest(C, D, G, H).\n"
+				+ "rest(C, D, G, H) :- true : C < 5 | four(C, D), apart(C, 3, G), sign(C, H).\n",
+				"start(C, D, G, H)");
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(5, runner.getSteps());
+		assertEquals("1", result(runner, 0, 1));
+		assertEquals("3", result(runner, 0, 2));
+		assertEquals("1", result(runner, 0, 3));
+		assertEquals(0, runner.getInterpreter().getAskCount(AskTier.PROPAGATION));
+		assertEquals(0, runner.getInterpreter().getAskCount(AskTier.SEARCH));
+	}
+
+	@Test
+	public void suspendsOnGuardNotEntailed() throws IOException {
+		Runner runner = runner(GUARDS, "sign(5, A), above(C), big(C, E)");
+		assertEquals(Runner.Status.DEADLOCK, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(2, runner.getSteps());
+		assertEquals("E", result(runner, 2, 1));
+	}
+
+	@Test
+	public void dividesAndTakesRemainders() throws IOException {
+		Runner runner = runner(ARITHMETIC, "calc(17, 5, Q, R), parity(8, A), parity(7, B), half(9, H), scale(4, Y)");
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(7, runner.getSteps());
+		assertEquals("3", result(runner, 0, 2));
+		assertEquals("2", result(runner, 0, 3));
+		assertEquals("1", result(runner, 1, 1));
+		assertEquals("0", result(runner, 2, 1));
+		assertEquals("4", result(runner, 3, 1));
+		assertEquals("13", result(runner, 4, 1));
+	}
+
+	@Test
+	public void asksQuotientOfNumbers() throws IOException {
+		assertEquals(Runner.Status.FINISHED, runner(ARITHMETIC, "quot(17, 5, 3)").run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(Runner.Status.DEADLOCK, runner(ARITHMETIC, "quot(17, 5, 4)").run(Runner.UNLIMITED, Runner.UNLIMITED));
+	}
+
+	@Test
+	public void doesNotTellNumbers() throws IOException {
+		//the left side of a numeric tell must not be a number yet
+		Runner runner = runner(ARITHMETIC, "half(X, 4), scale(Z, 13)");
+		assertEquals(Runner.Status.DEADLOCK, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(0, runner.getSteps());
+		runner = runner(TELLS, "one(1), two(1)");
+		assertEquals(Runner.Status.DEADLOCK, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(0, runner.getSteps());
+	}
+
+	@Test
+	public void comparesListsByInequality() throws IOException {
+		Runner runner = runner(LISTS, "ne([1, 2], [1, 3], A), ne([1], [1, 2], B), eq([1, 2], [1, 2], C)");
+		assertEquals(Runner.Status.FINISHED, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(3, runner.getSteps());
+		assertEquals("1", result(runner, 0, 2));
+		assertEquals("1", result(runner, 1, 2));
+		assertEquals("0", result(runner, 2, 2));
+		runner = runner(LISTS, "ne([1, 2], [1, 2], A)");
+		assertEquals(Runner.Status.DEADLOCK, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals("A", result(runner, 0, 2));
+	}
+
+	@Test
+	public void failsTellInconsistentWithStore() throws IOException {
+		assertFailingTell("one(A), two(A)", "1");
+		assertFailingTell("pos(A), neg(A)", "A");
+		assertFailingTell("nil(L), cons(L)", "[]");
+	}
+
+	/**
+	 * the first literal is reduced, the tell of the second one fails and it
+	 * is left in the goal
+	 */
+	private static void assertFailingTell(String goal, String expected) throws IOException {
+		Runner runner = runner(TELLS, goal);
+		assertEquals(goal, Runner.Status.DEADLOCK, runner.run(Runner.UNLIMITED, Runner.UNLIMITED));
+		assertEquals(goal, 1, runner.getSteps());
+		assertEquals(goal, expected, result(runner, 0, 0));
+	}
+
+	/**
+	 * @return the result of an argument of a literal of the initial goal
+	 */
+	private static String result(Runner runner, int literal, int arg) {
+		Value value = runner.getInitialGoal().get(literal).getArgs().get(arg);
+		return runner.getInterpreter().getResultString(value);
+	}
+
+	private static Runner runner(String source, String goalString) throws IOException {
+		Loader loader = new Loader();
+		Program program = loader.loadProgram(new StringReader(source));
+		assertNotNull(loader.getMessages().toString(), program);
+		List<Literal> goal = new LinkedList<>();
+		assertTrue(loader.getMessages().toString(), loader.loadGoal(goalString, program, goal));
+		return new Runner(program, goal, new CustomLiteralSelector(0), new CustomRuleSelector(0));
+	}
+}
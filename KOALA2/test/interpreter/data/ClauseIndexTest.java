@@ -0,0 +1,78 @@
+package interpreter.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import cli.Loader;
+
+public class ClauseIndexTest {
+
+	private static final String APPEND =
+			"app(X, Y, Z) :- X = [] : Z = Y | .\n"
+			+ "app(X, Y, Z) :- X = [H|T] : Z = [H|R] | app(T, Y, R).\n"
+			+ "app(X, Y, Z) :- true : true | .\n";
+
+	private static final String KIND =
+			"kind(X, K) :- X = 1 : K = 1 | .\n"
+			+ "kind(X, K) :- X = 2 : K = 2 | .\n"
+			+ "kind(X, K) :- X > 5 : K = 3 | .\n"
+			+ "kind(X, K) :- X = [] : K = 4 | .\n";
+
+	@Test
+	public void selectsClausesByListShape() throws IOException {
+		assertEquals(indices(0, 2), candidates(APPEND, "app([], Y, Z)"));
+		assertEquals(indices(1, 2), candidates(APPEND, "app([1, 2], Y, Z)"));
+		assertEquals(indices(2), candidates(APPEND, "app(X, Y, Z)"));
+	}
+
+	@Test
+	public void selectsClausesByIntegerConstant() throws IOException {
+		assertEquals(indices(0, 2), candidates(KIND, "kind(1, K)"));
+		assertEquals(indices(1, 2), candidates(KIND, "kind(2, K)"));
+		assertEquals(indices(2), candidates(KIND, "kind(7, K)"));
+		assertEquals(indices(3), candidates(KIND, "kind([], K)"));
+		assertEquals(indices(), candidates(KIND, "kind(X, K)"));
+	}
+
+	@Test
+	public void keepsClausesMatchingParametersOfLaterConjuncts() throws IOException {
+		String source = "p(L, H, R) :- L = [H|T], H > 0 : R = [] | .\n";
+		assertEquals(indices(0), candidates(source, "p([5], X, R)"));
+	}
+
+	/**
+	 * @return the positions of the candidate closures for the only literal of
+	 * 			the goal within the closures of its predicate
+	 */
+	private static List<Integer> candidates(String source, String goalString) throws IOException {
+		Loader loader = new Loader();
+		Program program = loader.loadProgram(new StringReader(source));
+		assertNotNull(loader.getMessages().toString(), program);
+		List<Literal> goal = new LinkedList<>();
+		assertTrue(loader.getMessages().toString(), loader.loadGoal(goalString, program, goal));
+		Literal literal = goal.get(0);
+		ClauseIndex index = program.getClauseIndex(literal);
+		List<Integer> positions = new ArrayList<>();
+		for(Closure c : index.getCandidates(literal, new ChocoStore())) {
+			positions.add(index.getClosures().indexOf(c));
+		}
+		return positions;
+	}
+
+	private static List<Integer> indices(Integer... positions) {
+		List<Integer> list = new ArrayList<>();
+		for(Integer p : positions) {
+			list.add(p);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,99 @@
+package interpreter.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import interpreter.data.ChocoStore.Entailment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import choco.Choco;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+/**
+ * Runs the same tells and asks on the incremental store and on the reference
+ * {@link ChocoStore}, which reads the whole model for every operation, and
+ * expects the same answers from both.
+ */
+public class IncrementalChocoStoreTest {
+
+	private ChocoStore reference;
+	private IncrementalChocoStore store;
+	private IntegerVariable x;
+	private IntegerVariable y;
+	private IntegerVariable z;
+
+	@Before
+	public void setUp() {
+		reference = new ChocoStore();
+		store = new IncrementalChocoStore();
+		x = Choco.makeIntVar("x", 0, 10);
+		y = Choco.makeIntVar("y", 0, 10);
+		z = Choco.makeIntVar("z", 0, 10);
+	}
+
+	@Test
+	public void answersLikeReferenceStore() {
+		assertSameEntailment(Choco.gt(x, 5));
+		tell(Choco.gt(x, 2));
+		assertSameEntailment(Choco.gt(x, 5));
+		assertSameEntailment(Choco.gt(x, 1));
+		assertSameEntailment(Choco.lt(x, 2));
+		tell(Choco.lt(x, 5));
+		tell(Choco.eq(y, Choco.plus(x, 1)));
+		assertSameEntailment(Choco.geq(y, 4));
+		assertSameEntailment(Choco.eq(y, 5));
+		assertSameEntailment(Choco.neq(x, y));
+		assertSameTellCheck(Choco.gt(x, 7));
+		assertSameTellCheck(Choco.eq(y, 5));
+		tell(Choco.neq(z, x));
+		tell(Choco.eq(x, 3));
+		assertSameEntailment(Choco.neq(z, 3));
+		assertSameEntailment(Choco.eq(y, 4));
+		assertSameConjunction(Choco.gt(y, 3), Choco.lt(y, 5));
+		assertSameConjunction(Choco.gt(y, 3), Choco.gt(z, 5));
+		assertEquals(reference.getValueOfVar(y), store.getValueOfVar(y));
+	}
+
+	@Test
+	public void probesDoNotLeakIntoStore() {
+		assertEquals(Entailment.UNKNOWN, store.entails(Choco.gt(x, 5)));
+		assertTrue(store.isTellOk(Choco.gt(x, 8)));
+		assertTrue(store.ask(Choco.geq(x, 0)));
+		assertTrue(store.askAll(Arrays.asList(Choco.geq(x, 0), Choco.leq(x, 10))));
+		//a probe remaining in the store would contradict the tell
+		assertTrue(store.tell(Choco.lt(x, 5)));
+		assertEquals(Entailment.DISENTAILED, store.entails(Choco.gt(x, 5)));
+		assertEquals(Integer.valueOf(4), maxOf(x));
+	}
+
+	private void tell(Constraint c) {
+		assertEquals(reference.tell(c), store.tell(c));
+	}
+
+	private void assertSameEntailment(Constraint c) {
+		assertEquals(String.valueOf(c), reference.entails(c), store.entails(c));
+		assertEquals(String.valueOf(c), reference.ask(c), store.ask(c));
+	}
+
+	private void assertSameTellCheck(Constraint c) {
+		assertEquals(String.valueOf(c), reference.isTellOk(c), store.isTellOk(c));
+	}
+
+	private void assertSameConjunction(Constraint... conjuncts) {
+		List<Constraint> guard = Arrays.asList(conjuncts);
+		assertEquals(reference.askAll(guard), store.askAll(guard));
+		List<List<Constraint>> guards = Collections.singletonList(guard);
+		assertArrayEquals(reference.askEach(guards), store.askEach(guards));
+	}
+
+	private Integer maxOf(IntegerVariable v) {
+		return store.getValuation().getUpperBound(v);
+	}
+}
@@ -0,0 +1,149 @@
+package interpreter.data;
+
+import static interpreter.data.ListVariable.SEGMENT_LENGTH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ListVariableTest {
+
+	@Test
+	public void splitsLongRunsIntoSegments() {
+		int[] numbers = numbers(2 * SEGMENT_LENGTH + 5);
+		Value rest = empty();
+		ListVariable list = ListVariable.ofInts(numbers, rest);
+		assertEquals(SEGMENT_LENGTH, list.getIntCount());
+
+		//every number is read exactly once, segment by segment
+		int i = 0;
+		Value tail = null;
+		while (list.isCons()) {
+			int count = list.getIntCount();
+			assertTrue(count > 0 && count <= SEGMENT_LENGTH);
+			for (int j = 0; j < count; ++j) {
+				assertEquals(numbers[i++], list.getInt(j));
+			}
+			tail = list.dropInts(count);
+			list = tail.getListVar();
+		}
+		assertEquals(numbers.length, i);
+		assertSame(rest, tail);
+	}
+
+	@Test
+	public void dropsNumbersAcrossSegmentBoundary() {
+		int[] numbers = numbers(SEGMENT_LENGTH + 3);
+		ListVariable list = ListVariable.ofInts(numbers, empty());
+
+		ListVariable last = list.dropInts(SEGMENT_LENGTH - 1).getListVar();
+		assertEquals(1, last.getIntCount());
+		assertEquals(numbers[SEGMENT_LENGTH - 1], last.getInt(0));
+
+		ListVariable next = last.dropInts(1).getListVar();
+		assertEquals(3, next.getIntCount());
+		assertEquals(numbers[SEGMENT_LENGTH], next.getInt(0));
+		assertEquals(numbers[SEGMENT_LENGTH + 2], next.getInt(2));
+
+		assertEquals(numbers[SEGMENT_LENGTH], list.dropInts(SEGMENT_LENGTH).getListVar().getInt(0));
+	}
+
+	@Test
+	public void endsRunOfWholeSegmentsWithRest() {
+		Value rest = empty();
+		ListVariable list = ListVariable.ofInts(numbers(2 * SEGMENT_LENGTH), rest);
+		ListVariable second = list.dropInts(SEGMENT_LENGTH).getListVar();
+		assertEquals(SEGMENT_LENGTH, second.getIntCount());
+		assertSame(rest, second.dropInts(SEGMENT_LENGTH));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void cannotDropMoreThanRun() {
+		ListVariable list = ListVariable.ofInts(numbers(SEGMENT_LENGTH + 1), empty());
+		list.dropInts(SEGMENT_LENGTH + 1);
+	}
+
+	@Test
+	public void readsHeadAndTailOfRun() {
+		int[] numbers = numbers(3);
+		ListVariable list = ListVariable.ofInts(numbers, empty());
+		assertEquals(numbers[0], list.getHead().getInt().getValue());
+		ListVariable tail = list.getTail().getListVar();
+		assertEquals(2, tail.getIntCount());
+		assertEquals(numbers[1], tail.getInt(0));
+		assertSame(list.getTail(), list.getTail());
+	}
+
+	@Test
+	public void bindsUnboundListToSegmentedRun() {
+		int[] numbers = numbers(SEGMENT_LENGTH + 1);
+		ListVariable list = new ListVariable();
+		Counter counter = new Counter();
+		list.suspend(counter);
+		list.setInts(numbers, empty());
+		assertEquals(1, counter.count);
+		assertEquals(SEGMENT_LENGTH, list.getIntCount());
+		ListVariable next = list.dropInts(SEGMENT_LENGTH).getListVar();
+		assertEquals(1, next.getIntCount());
+		assertEquals(numbers[SEGMENT_LENGTH], next.getInt(0));
+	}
+
+	@Test
+	public void sharesStructureWithAlias() {
+		ListVariable list = new ListVariable();
+		ListVariable alias = new ListVariable();
+		Counter counter = new Counter();
+		alias.suspend(counter);
+		alias.aliasTo(list);
+		assertSame(list, alias.getRepresentative());
+		assertEquals(0, counter.count);
+
+		//binding either list binds both and wakes the processes of both
+		list.setInts(numbers(2), empty());
+		assertEquals(1, counter.count);
+		assertTrue(alias.isCons());
+		assertEquals(2, alias.getIntCount());
+	}
+
+	@Test
+	public void wakesAliasOfBoundList() {
+		ListVariable alias = new ListVariable();
+		Counter counter = new Counter();
+		alias.suspend(counter);
+		alias.aliasTo(ListVariable.ofInts(numbers(1), empty()));
+		assertEquals(1, counter.count);
+		assertFalse(alias.isUnbound());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void boundListCannotBecomeAlias() {
+		ListVariable.ofInts(numbers(1), empty()).aliasTo(new ListVariable());
+	}
+
+	private static int[] numbers(int n) {
+		int[] numbers = new int[n];
+		for (int i = 0; i < n; ++i) {
+			numbers[i] = 3 * i + 1;
+		}
+		return numbers;
+	}
+
+	private static Value empty() {
+		ListVariable list = new ListVariable();
+		list.setEmpty();
+		Value value = new Value("");
+		value.init(list);
+		return value;
+	}
+
+	private static final class Counter implements Suspension {
+		private int count;
+
+		@Override
+		public void wake() {
+			++count;
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package interpreter.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import interpreter.data.ChocoStore.AskTier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import choco.Choco;
+import choco.kernel.model.constraints.Constraint;
+import choco.kernel.model.variables.integer.IntegerVariable;
+
+public class PartitionedChocoStoreTest {
+
+	private PartitionedChocoStore store;
+	private IntegerVariable x;
+	private IntegerVariable y;
+	private IntegerVariable z;
+	private IntegerVariable w;
+
+	@Before
+	public void setUp() {
+		store = new PartitionedChocoStore();
+		x = Choco.makeIntVar("x", 0, 10);
+		y = Choco.makeIntVar("y", 0, 10);
+		z = Choco.makeIntVar("z", 0, 10);
+		w = Choco.makeIntVar("w", 0, 10);
+	}
+
+	@Test
+	public void keepsUnconnectedConstraintsApart() {
+		store.commit(Arrays.asList(Choco.lt(x, y), Choco.lt(z, 3)));
+		assertEquals(2, store.getComponentCount());
+		assertFalse(store.isIndependent(list(x), list(y)));
+		assertTrue(store.isIndependent(list(x, y), list(z)));
+		assertTrue(store.isIndependent(list(w), list(x, y, z)));
+	}
+
+	@Test
+	public void mergesComponentsOnConnectingTell() {
+		store.commit(Arrays.asList(Choco.lt(x, y), Choco.lt(z, 3)));
+		store.commit(Collections.singletonList(Choco.eq(y, Choco.plus(z, w))));
+		assertEquals(1, store.getComponentCount());
+		assertFalse(store.isIndependent(list(x), list(w)));
+	}
+
+	@Test
+	public void staysPartitionedAfterConstraintsWithoutScope() {
+		store.commit(Arrays.asList(Choco.lt(x, y), Choco.lt(z, 3)));
+		store.ask(Choco.gt(x, 0));
+		store.askAll(Arrays.asList(Choco.gt(x, 0), Choco.gt(z, 0)));
+		store.isTellOk(Choco.gt(w, 1));
+		store.commit(Collections.singletonList(Choco.gt(w, 1)));
+		assertEquals(3, store.getComponentCount());
+		assertTrue(store.isIndependent(list(x), list(z)));
+		assertTrue(store.isIndependent(list(w), list(x, z)));
+	}
+
+	@Test
+	public void reusesScopeOfConstraint() {
+		Constraint c = Choco.lt(x, y);
+		store.scope(c, list(x, y));
+		store.isTellOk(c);
+		store.commit(Collections.singletonList(c));
+		store.commit(Collections.singletonList(Choco.lt(z, 3)));
+		assertEquals(2, store.getComponentCount());
+		assertTrue(store.isIndependent(list(x), list(z)));
+	}
+
+	@Test
+	public void collectsUnreachableComponents() {
+		store.commit(Arrays.asList(Choco.lt(x, y), Choco.lt(z, 3), Choco.lt(w, 5)));
+		Garbage garbage = store.collect(list(x, w));
+		assertEquals(1, garbage.getComponents());
+		assertEquals(1, garbage.getConstraints());
+		assertEquals(1, garbage.getVariables());
+		assertEquals(2, store.getComponentCount());
+		//the variables of the dropped component are free again
+		assertTrue(store.isIndependent(list(z), list(x, y, w)));
+	}
+
+	@Test
+	public void keepsComponentsWithReachableVariables() {
+		store.commit(Arrays.asList(Choco.lt(x, y), Choco.lt(z, 3)));
+		Garbage garbage = store.collect(list(y, z));
+		assertEquals(0, garbage.getComponents());
+		assertEquals(2, store.getComponentCount());
+	}
+
+	@Test
+	public void answersConjunctionsLikeReferenceStore() {
+		ChocoStore reference = new ChocoStore();
+		List<Constraint> tells = Arrays.asList(Choco.lt(x, y), Choco.gt(x, 4), Choco.lt(z, 3));
+		reference.commit(tells);
+		store.commit(tells);
+		List<List<Constraint>> guards = Arrays.asList(
+				Arrays.asList(Choco.gt(y, 5), Choco.lt(z, 4)),
+				Arrays.asList(Choco.gt(y, 5), Choco.lt(z, 2)),
+				Arrays.asList(Choco.neq(y, z)),
+				Collections.<Constraint>emptyList());
+		assertArrayEquals(reference.askEach(guards), store.askEach(guards));
+		for (List<Constraint> guard : guards) {
+			assertEquals(reference.askAll(guard), store.askAll(guard));
+		}
+	}
+
+	@Test
+	public void decidesUnconstrainedVariablesWithoutKeepingThem() {
+		store.commit(Collections.singletonList(Choco.lt(x, 3)));
+		assertFalse(store.ask(Choco.gt(y, 5)));
+		assertTrue(store.ask(Choco.geq(y, 0)));
+		assertTrue(store.askAll(Arrays.asList(Choco.lt(x, 4), Choco.leq(z, 10))));
+		assertTrue(store.isTellOk(Choco.gt(w, 9)));
+		assertEquals(1, store.getComponentCount());
+		//the asks of discarded components still count
+		assertEquals(4, askCount());
+		assertTrue(store.getStatus().contains("x"));
+		assertFalse(store.getStatus().contains("y"));
+	}
+
+	@Test
+	public void valuesVariablesOutsideComponentsByTheirDomain() {
+		IntegerVariable fixed = Choco.makeIntVar("fixed", 7, 7);
+		store.commit(Collections.singletonList(Choco.lt(x, 3)));
+		assertEquals(Integer.valueOf(7), store.getValueOfVar(fixed));
+		assertNull(store.getValueOfVar(y));
+		assertNull(store.getValueOfVar(x));
+	}
+
+	@Test
+	public void countsAsksOfAllComponents() {
+		store.commit(Arrays.asList(Choco.lt(x, y), Choco.lt(z, 3)));
+		store.ask(Choco.gt(x, 0));
+		store.ask(Choco.gt(z, 0));
+		//propagation decides neither conjunct, so a single search does
+		store.askAll(Arrays.asList(Choco.gt(x, 0), Choco.gt(y, 1)));
+		assertEquals(3, askCount());
+		assertNotNull(store.getLastAskTier());
+		//the counts of merged and dropped components are kept
+		store.commit(Collections.singletonList(Choco.lt(y, z)));
+		assertEquals(3, askCount());
+		store.collect(Collections.<IntegerVariable>emptyList());
+		assertEquals(0, store.getComponentCount());
+		assertEquals(3, askCount());
+	}
+
+	@Test
+	public void substitutesVariablesOutsideComponents() {
+		store.commit(Collections.singletonList(Choco.lt(x, 3)));
+		store.commit(Collections.singletonList(equation(w, x)));
+		assertSame(x, store.getRepresentative(w));
+		assertEquals(1, store.getComponentCount());
+		//no solver sees the equation
+		assertEquals(1, store.model.getNbConstraints());
+		assertFalse(store.isIndependent(list(w), list(x)));
+		store.commit(Collections.singletonList(Choco.eq(x, 2)));
+		assertEquals(Integer.valueOf(2), store.getValueOfVar(w));
+	}
+
+	@Test
+	public void boundsRepresentativeByDomainOfSubstitutedVariable() {
+		IntegerVariable high = Choco.makeIntVar("high", 8, 12);
+		store.commit(Collections.singletonList(equation(high, y)));
+		assertSame(y, store.getRepresentative(high));
+		assertTrue(store.ask(Choco.geq(y, 8)));
+		assertFalse(store.ask(Choco.geq(y, 9)));
+	}
+
+	@Test
+	public void linksConstrainedVariablesOnce() {
+		store.commit(Arrays.asList(Choco.lt(x, 3), Choco.gt(y, 1)));
+		store.commit(Collections.singletonList(equation(x, y)));
+		assertSame(y, store.getRepresentative(x));
+		assertEquals(1, store.getComponentCount());
+		assertEquals(Integer.valueOf(2), store.getValueOfVar(x));
+		int constraints = store.model.getNbConstraints();
+		store.commit(Collections.singletonList(equation(y, x)));
+		assertEquals(constraints, store.model.getNbConstraints());
+	}
+
+	@Test
+	public void linksConstraintsCreatedBeforeSubstitution() {
+		Constraint c = Choco.gt(w, 4);
+		store.commit(Collections.singletonList(Choco.lt(x, 6)));
+		store.commit(Collections.singletonList(equation(w, x)));
+		store.commit(Collections.singletonList(c));
+		assertEquals(Integer.valueOf(5), store.getValueOfVar(x));
+		assertEquals(Integer.valueOf(5), store.getValueOfVar(w));
+	}
+
+	@Test
+	public void forgetsSubstitutionsOfCollectedVariables() {
+		store.commit(Arrays.asList(Choco.lt(x, 3), Choco.gt(y, 1)));
+		store.commit(Collections.singletonList(equation(x, y)));
+		store.collect(list(z));
+		assertEquals(0, store.getComponentCount());
+		assertSame(x, store.getRepresentative(x));
+	}
+
+	/**
+	 * @return an equation of the given variables as the interpreter hands it
+	 *         to the store
+	 */
+	private Constraint equation(IntegerVariable var1, IntegerVariable var2) {
+		Constraint c = Choco.eq(var1, var2);
+		store.equate(c, var1, var2);
+		return c;
+	}
+
+	private long askCount() {
+		return store.getAskCount(AskTier.PROPAGATION) + store.getAskCount(AskTier.SEARCH);
+	}
+
+	private static List<IntegerVariable> list(IntegerVariable... variables) {
+		return Arrays.asList(variables);
+	}
+}
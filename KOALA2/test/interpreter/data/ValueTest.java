@@ -0,0 +1,78 @@
+package interpreter.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import choco.kernel.model.variables.integer.IntegerConstantVariable;
+
+public class ValueTest {
+
+	@Test
+	public void sharesContentWithAliases() {
+		Value x = new Value("X");
+		Value y = new Value("Y");
+		Value z = new Value("Z");
+		x.aliasTo(y);
+		y.aliasTo(z);
+		assertSame(z, x.getRepresentative());
+		assertFalse(x.isInit());
+
+		x.init(new IntegerConstantVariable(5));
+		assertTrue(z.isInt());
+		assertEquals(5, y.getInt().getValue());
+	}
+
+	@Test
+	public void movesSuspensionsToRepresentative() {
+		Value x = new Value("X");
+		Value y = new Value("Y");
+		Counter counter = new Counter();
+		x.suspend(counter);
+		x.aliasTo(y);
+		assertEquals(0, counter.count);
+		y.init(new IntegerConstantVariable(1));
+		assertEquals(1, counter.count);
+	}
+
+	@Test
+	public void wakesAliasOfInitializedValue() {
+		Value x = new Value("X");
+		Value y = new Value("Y");
+		y.init(new IntegerConstantVariable(1));
+		Counter counter = new Counter();
+		x.suspend(counter);
+		x.aliasTo(y);
+		assertEquals(1, counter.count);
+		assertTrue(x.isInt());
+	}
+
+	@Test
+	public void ignoresAliasToItself() {
+		Value x = new Value("X");
+		Value y = new Value("Y");
+		x.aliasTo(y);
+		y.aliasTo(x);
+		assertSame(y, x.getRepresentative());
+		assertSame(y, y.getRepresentative());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void initializedValueCannotBecomeAlias() {
+		Value x = new Value("X");
+		x.init(new IntegerConstantVariable(1));
+		x.aliasTo(new Value("Y"));
+	}
+
+	private static final class Counter implements Suspension {
+		private int count;
+
+		@Override
+		public void wake() {
+			++count;
+		}
+	}
+}